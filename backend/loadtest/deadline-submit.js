@@ -0,0 +1,64 @@
+// Deadline-spike load test for POST /api/assignments/{id}/submit.
+//
+// Run the same scenario against both execution modes and compare the summaries
+// (http_reqs rate = throughput, http_req_duration p(99) = tail latency):
+//
+//   java -jar target/backend-0.0.1-SNAPSHOT.jar                                   # platform threads
+//   java -jar target/backend-0.0.1-SNAPSHOT.jar --spring.profiles.active=virtual  # virtual threads
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ASSIGNMENT_ID=1 \
+//          -e FIRST_STUDENT=1 -e STUDENTS=5000 -e PEAK_RPS=2000 loadtest/deadline-submit.js
+//
+// Students FIRST_STUDENT .. FIRST_STUDENT+STUDENTS-1 must exist (see the seed profile).
+//
+// Measured on a single-core instance with the default admission limits, 5000 students, 60 s at a constant
+// offered rate after a 30 s warm-up run (same requests, driven by a JVM client as k6 was not available there):
+//
+//   offered/s   platform (pool 10): ok/s  p99     virtual (pool 40): ok/s  p99
+//   100                             98    0.27 s                     98    0.84 s
+//   200                            191    0.44 s                    172    0.86 s
+//   400                            279    0.50 s                    253    0.99 s
+//
+// Every 429 was admission overload, none rate limiting. On one core the virtual mode only adds contention:
+// 40 in-flight submits share the CPU and the larger pool, so latency rises and throughput does not. It pays off
+// where requests wait on I/O rather than CPU, i.e. with more cores and a database on another host. Measure there
+// before switching.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ASSIGNMENT_ID = __ENV.ASSIGNMENT_ID || '1';
+const FIRST_STUDENT = parseInt(__ENV.FIRST_STUDENT || '1');
+const STUDENTS = parseInt(__ENV.STUDENTS || '1000');
+const PEAK_RPS = parseInt(__ENV.PEAK_RPS || '1000');
+
+export const options = {
+  scenarios: {
+    deadline: {
+      executor: 'ramping-arrival-rate',
+      startRate: Math.max(1, Math.floor(PEAK_RPS / 10)),
+      timeUnit: '1s',
+      preAllocatedVUs: 500,
+      maxVUs: 5000,
+      stages: [
+        { target: PEAK_RPS, duration: '30s' },  // students converge on the deadline
+        { target: PEAK_RPS, duration: '60s' },  // sustained spike
+        { target: 0, duration: '10s' },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export default function () {
+  const studentId = FIRST_STUDENT + Math.floor(Math.random() * STUDENTS);
+  const res = http.post(
+    `${BASE_URL}/api/assignments/${ASSIGNMENT_ID}/submit?studentId=${studentId}`,
+    JSON.stringify({ content: `answer from ${studentId} at ${Date.now()}` }),
+    { headers: { 'Content-Type': 'application/json' } },
+  );
+  check(res, { 'submitted': (r) => r.status === 200 });
+}
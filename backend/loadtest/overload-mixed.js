@@ -0,0 +1,83 @@
+// Overload test for admission control: read traffic well past capacity while students keep submitting.
+//
+// First measure capacity (the read rate at which http_req_duration starts climbing without 429s), e.g. with
+// READ_RPS stepped up and SUBMIT_RPS=0; then run at five times that:
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ASSIGNMENT_ID=1 -e COURSE_ID=1 \
+//          -e FIRST_STUDENT=1 -e STUDENTS=5000 -e READ_RPS=2500 -e SUBMIT_RPS=100 loadtest/overload-mixed.js
+//
+// Expected: reads are partly shed with 429 + Retry-After, submits still complete (checks{kind:submit} ~100%)
+// with a bounded p99. Run it against a warmed-up instance (one run first): straight after startup JIT compilation
+// competes for the CPU and the submit p99 threshold fails (4.3 s measured on one core). With the default limits
+// (max-concurrent = pool of 10, critical-share 0.5) a single-core instance at READ_RPS=200 SUBMIT_RPS=10 measured
+// a submit p99 of 1.4 s, 0.8 s and 0.1 s over three runs after a warm-up run, with 2379, 634 and 103 reads shed out of
+// 12000. Reserving 6 of 10 gave 2.0 s, 0.6 s and 0.4 s (3535, 2312, 994 shed); the earlier 20/10 gave 2.6 s. Students FIRST_STUDENT .. FIRST_STUDENT+STUDENTS-1 must exist and be enrolled (seed profile).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ASSIGNMENT_ID = __ENV.ASSIGNMENT_ID || '1';
+const COURSE_ID = __ENV.COURSE_ID || '1';
+const FIRST_STUDENT = parseInt(__ENV.FIRST_STUDENT || '1');
+const STUDENTS = parseInt(__ENV.STUDENTS || '1000');
+const READ_RPS = parseInt(__ENV.READ_RPS || '2500');
+const SUBMIT_RPS = parseInt(__ENV.SUBMIT_RPS || '100');
+
+export const options = {
+  scenarios: {
+    reads: {
+      executor: 'constant-arrival-rate',
+      exec: 'read',
+      rate: READ_RPS,
+      timeUnit: '1s',
+      duration: '60s',
+      preAllocatedVUs: 500,
+      maxVUs: 5000,
+      tags: { kind: 'read' },
+    },
+    submits: {
+      executor: 'constant-arrival-rate',
+      exec: 'submit',
+      rate: SUBMIT_RPS,
+      timeUnit: '1s',
+      duration: '60s',
+      preAllocatedVUs: 100,
+      maxVUs: 1000,
+      tags: { kind: 'submit' },
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    'checks{kind:submit}': ['rate>0.99'],
+    'http_req_duration{kind:submit}': ['p(99)<2000'],
+  },
+};
+
+function student() {
+  return FIRST_STUDENT + Math.floor(Math.random() * STUDENTS);
+}
+
+export function read() {
+  const userId = student();
+  const urls = [
+    `${BASE_URL}/api/assignments/${ASSIGNMENT_ID}/submissions?limit=50`,
+    `${BASE_URL}/api/dashboard?userId=${userId}`,
+    `${BASE_URL}/api/courses?userId=${userId}`,
+    `${BASE_URL}/api/search?userId=${userId}&q=lorem`,
+    `${BASE_URL}/api/assignments?courseId=${COURSE_ID}`,
+  ];
+  const res = http.get(urls[Math.floor(Math.random() * urls.length)]);
+  check(res, {
+    'served or shed': (r) => r.status === 200 || (r.status === 429 && r.headers['Retry-After'] !== undefined),
+  });
+}
+
+export function submit() {
+  const studentId = student();
+  const res = http.post(
+    `${BASE_URL}/api/assignments/${ASSIGNMENT_ID}/submit?studentId=${studentId}`,
+    JSON.stringify({ content: `answer from ${studentId} at ${Date.now()}` }),
+    { headers: { 'Content-Type': 'application/json' } },
+  );
+  check(res, { 'submitted': (r) => r.status === 200 });
+}
@@ -0,0 +1,73 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.BackendApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without the web server against the benchmark database and seeds fixtures with
+ * set-based SQL, so setup cost does not depend on the code being measured.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        SpringApplication app = new SpringApplication(BackendApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        // command-line arguments, because default properties lose to application.properties
+        return app.run(
+                "--spring.datasource.url=" + System.getProperty("bench.datasource.url", "jdbc:postgresql://localhost:5432/lms_bench"),
+                "--spring.datasource.username=" + System.getProperty("bench.datasource.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("bench.datasource.password", "423"),
+                "--logging.level.root=WARN");
+    }
+
+    // one teacher, course and assignment plus `students` students who have each submitted once
+    static Fixture seed(ConfigurableApplicationContext context, int students) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String prefix = "bench_" + UUID.randomUUID().toString().substring(0, 8);
+
+        Long teacherId = jdbc.queryForObject("""
+                INSERT INTO users (username, password, full_name, role, created_at)
+                VALUES (?, 'password', 'Bench Teacher', 'TEACHER', now()) RETURNING id
+                """, Long.class, prefix + "_teacher");
+        Long courseId = jdbc.queryForObject("""
+                INSERT INTO courses (title, subject, invite_code, teacher_id, created_at)
+                VALUES (?, 'Bench', ?, ?, now()) RETURNING id
+                """, Long.class, prefix, prefix, teacherId);
+        Long assignmentId = jdbc.queryForObject("""
+                INSERT INTO assignments (title, description, max_score, due_date, course_id, created_at)
+                VALUES ('Bench assignment', 'Benchmark fixture', 100, now() + interval '7 days', ?, now()) RETURNING id
+                """, Long.class, courseId);
+        jdbc.update("""
+                INSERT INTO users (username, password, full_name, role, created_at)
+                SELECT ? || '_s' || g, 'password', 'Student ' || g, 'STUDENT', now()
+                FROM generate_series(1, ?) g
+                """, prefix, students);
+        jdbc.update("""
+                INSERT INTO enrollments (student_id, course_id)
+                SELECT u.id, ? FROM users u WHERE u.username LIKE ? || '\\_s%'
+                """, courseId, prefix);
+        jdbc.update("""
+                INSERT INTO submissions (assignment_id, student_id, content_preview, content_size, status, submitted_at)
+                SELECT ?, u.id, 'Answer from ' || u.username, length('Answer from ' || u.username), 'SUBMITTED', now()
+                FROM users u WHERE u.username LIKE ? || '\\_s%'
+                """, assignmentId, prefix);
+
+        List<Long> studentIds = jdbc.queryForList(
+                "SELECT id FROM users WHERE username LIKE ? || '\\_s%' ORDER BY id", Long.class, prefix);
+        List<Long> submissionIds = jdbc.queryForList(
+                "SELECT id FROM submissions WHERE assignment_id = ? ORDER BY id", Long.class, assignmentId);
+        return new Fixture(teacherId, courseId, assignmentId, studentIds, submissionIds);
+    }
+
+    record Fixture(Long teacherId, Long courseId, Long assignmentId, List<Long> studentIds, List<Long> submissionIds) {
+    }
+}
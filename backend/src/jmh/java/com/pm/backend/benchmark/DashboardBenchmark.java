@@ -0,0 +1,70 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/dashboard for a student in 15 courses with 300 assignments; sampled so the report carries p95/p99
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    private static final int COURSES = 15;
+    private static final int ASSIGNMENTS_PER_COURSE = 20;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private JsonMapper mapper;
+    private Long studentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        dashboardService = context.getBean(DashboardService.class);
+        mapper = context.getBean(JsonMapper.class);
+
+        BenchmarkContext.Fixture fixture = BenchmarkContext.seed(context, 1);
+        studentId = fixture.studentIds().getFirst();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String prefix = "dash_" + UUID.randomUUID().toString().substring(0, 8);
+        jdbc.update("""
+                INSERT INTO courses (title, subject, invite_code, teacher_id, created_at)
+                SELECT ? || '_c' || g, 'Bench', ? || '_c' || g, ?, now() FROM generate_series(2, ?) g
+                """, prefix, prefix, fixture.teacherId(), COURSES);
+        jdbc.update("""
+                INSERT INTO enrollments (student_id, course_id)
+                SELECT ?, c.id FROM courses c WHERE c.title LIKE ? || '\\_c%'
+                """, studentId, prefix);
+        jdbc.update("""
+                INSERT INTO assignments (title, description, max_score, due_date, course_id, created_at)
+                SELECT 'Assignment ' || g, 'Benchmark fixture', 100, now() + g * interval '1 day', e.course_id, now()
+                FROM enrollments e CROSS JOIN generate_series(1, ?) g
+                WHERE e.student_id = ? AND e.course_id <> ?
+                """, ASSIGNMENTS_PER_COURSE, studentId, fixture.courseId());
+        jdbc.update("""
+                INSERT INTO assignments (title, description, max_score, due_date, course_id, created_at)
+                SELECT 'Assignment ' || g, 'Benchmark fixture', 100, now() + g * interval '1 day', ?, now()
+                FROM generate_series(2, ?) g
+                """, fixture.courseId(), ASSIGNMENTS_PER_COURSE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] studentDashboard() {
+        return mapper.writeValueAsBytes(dashboardService.getStudentDashboard(studentId));
+    }
+}
@@ -0,0 +1,82 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.dto.SubmissionPage;
+import com.pm.backend.service.AssignmentService;
+import com.pm.backend.service.CourseService;
+import com.pm.backend.service.GradebookService;
+import com.pm.backend.service.SubmissionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+// listing endpoints minus HTTP: the controller's service call plus the JSON body it would write
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private SubmissionService submissionService;
+    private AssignmentService assignmentService;
+    private CourseService courseService;
+    private GradebookService gradebookService;
+    private JsonMapper mapper;
+    private BenchmarkContext.Fixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        submissionService = context.getBean(SubmissionService.class);
+        assignmentService = context.getBean(AssignmentService.class);
+        courseService = context.getBean(CourseService.class);
+        gradebookService = context.getBean(GradebookService.class);
+        mapper = context.getBean(JsonMapper.class);
+        fixture = BenchmarkContext.seed(context, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // GET /api/assignments/{id}/submissions, following nextCursor through every page
+    @Benchmark
+    public void submissionPages(Blackhole bh) {
+        Long cursor = null;
+        do {
+            SubmissionPage page = submissionService.getSubmissionPage(fixture.assignmentId(), cursor, 200,
+                    null, null, null);
+            bh.consume(mapper.writeValueAsBytes(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    // GET /api/assignments/{id}/submissions?limit=50 (first page only)
+    @Benchmark
+    public byte[] firstSubmissionPage() {
+        return mapper.writeValueAsBytes(submissionService.getSubmissionPage(fixture.assignmentId(), null, 50,
+                null, null, null));
+    }
+
+    // GET /api/courses/{id}/gradebook
+    @Benchmark
+    public byte[] gradebook() {
+        return mapper.writeValueAsBytes(gradebookService.getGradebook(fixture.courseId()));
+    }
+
+    // GET /api/courses?userId= for the teacher, and GET /api/assignments?courseId=
+    @Benchmark
+    public void courseAndAssignmentLists(Blackhole bh) {
+        bh.consume(mapper.writeValueAsBytes(courseService.getCoursesForUser(fixture.teacherId())));
+        bh.consume(mapper.writeValueAsBytes(assignmentService.getAssignmentsByCourse(fixture.courseId())));
+    }
+}
@@ -0,0 +1,98 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.dto.AssignmentView;
+import com.pm.backend.dto.CourseView;
+import com.pm.backend.dto.SubmissionView;
+import com.pm.backend.entity.*;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the response bodies, comparing the entity graphs the API used to return with the read model
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int rows;
+
+    private final JsonMapper mapper = JsonMapper.builder().findAndAddModules().build();
+
+    private List<Submission> submissionEntities;
+    private List<SubmissionView> submissionViews;
+    private List<Course> courseEntities;
+    private List<CourseView> courseViews;
+    private List<Assignment> assignmentEntities;
+    private List<AssignmentView> assignmentViews;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User teacher = User.builder().id(1L).username("teacher").password("password").fullName("Mr. Anderson")
+                .role(UserRole.TEACHER).createdAt(now).build();
+
+        courseEntities = new ArrayList<>(rows);
+        assignmentEntities = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            Course course = Course.builder().id(i).title("Course " + i).description("Description of course " + i)
+                    .subject("Math").inviteCode("C" + i).teacher(teacher).createdAt(now).build();
+            courseEntities.add(course);
+            assignmentEntities.add(Assignment.builder().id(i).title("Homework " + i)
+                    .description("Solve page 10-12 in your textbook.").dueDate(now.plusDays(7)).maxScore(100)
+                    .course(course).createdAt(now).build());
+        }
+
+        Assignment assignment = assignmentEntities.getFirst();
+        submissionEntities = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            User student = User.builder().id(1000 + i).username("student" + i).password("password")
+                    .fullName("Student " + i).role(UserRole.STUDENT).createdAt(now).build();
+            submissionEntities.add(Submission.builder().id(i).assignment(assignment).student(student)
+                    .contentPreview("1/2 + 1/4 = 3/4. I think this is correct.").contentSize(41L)
+                    .grade(90).feedback("Well done")
+                    .status(SubmissionStatus.GRADED).submittedAt(now).build());
+        }
+
+        courseViews = courseEntities.stream().map(CourseView::from).toList();
+        assignmentViews = assignmentEntities.stream().map(AssignmentView::from).toList();
+        submissionViews = submissionEntities.stream().map(SubmissionView::from).toList();
+    }
+
+    @Benchmark
+    public byte[] submissionEntityGraph() {
+        return mapper.writeValueAsBytes(submissionEntities);
+    }
+
+    @Benchmark
+    public byte[] submissionViews() {
+        return mapper.writeValueAsBytes(submissionViews);
+    }
+
+    @Benchmark
+    public byte[] courseEntityGraph() {
+        return mapper.writeValueAsBytes(courseEntities);
+    }
+
+    @Benchmark
+    public byte[] courseViews() {
+        return mapper.writeValueAsBytes(courseViews);
+    }
+
+    @Benchmark
+    public byte[] assignmentEntities() {
+        return mapper.writeValueAsBytes(assignmentEntities);
+    }
+
+    @Benchmark
+    public byte[] assignmentViews() {
+        return mapper.writeValueAsBytes(assignmentViews);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.dto.SubmissionView;
+import com.pm.backend.service.SubmissionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// write paths end to end through the service layer and PostgreSQL
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class SubmissionServiceBenchmark {
+
+    private static final int STUDENTS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private SubmissionService submissionService;
+    private BenchmarkContext.Fixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        submissionService = context.getBean(SubmissionService.class);
+        fixture = BenchmarkContext.seed(context, STUDENTS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SubmissionView submitAssignment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long studentId = fixture.studentIds().get(random.nextInt(STUDENTS));
+        return submissionService.submitAssignment(studentId, fixture.assignmentId(), "answer " + random.nextInt());
+    }
+
+    @Benchmark
+    public SubmissionView gradeSubmission() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long submissionId = fixture.submissionIds().get(random.nextInt(STUDENTS));
+        return submissionService.gradeSubmission(submissionId, random.nextInt(101), "feedback");
+    }
+}
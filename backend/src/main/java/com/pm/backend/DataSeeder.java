@@ -1,166 +1,155 @@
-//package com.pm.backend;
-//
-//import com.pm.backend.entity.*;
-//import com.pm.backend.repository.AssignmentRepository;
-//import com.pm.backend.repository.CourseRepository;
-//import com.pm.backend.repository.SubmissionRepository;
-//import com.pm.backend.repository.UserRepository;
-//import lombok.RequiredArgsConstructor;
-//import org.springframework.boot.CommandLineRunner;
-//import org.springframework.stereotype.Component;
-//import org.springframework.transaction.annotation.Transactional;
-//
-//import java.util.ArrayList;
-//import java.util.Arrays;
-//import java.util.List;
-//
-//@Component
-//@RequiredArgsConstructor
-//public class DataSeeder implements CommandLineRunner {
-//
-//    private final UserRepository userRepository;
-//    private final CourseRepository courseRepository;
-//    private final AssignmentRepository assignmentRepository;
-//    private final SubmissionRepository submissionRepository;
-//
-//    @Override
-//    @Transactional // 保证数据一致性，特别是处理关联关系时
-//    public void run(String... args) throws Exception {
-//        // 如果数据库已经有数据，就不执行了
-//        if (userRepository.count() > 0) {
-//            System.out.println("数据已存在，跳过初始化...");
-//            return;
-//        }
-//
-//        System.out.println("正在初始化测试数据...");
-//
-//        // --- 1. 创建老师 ---
-//        User teacherMath = User.builder()
-//                .username("teacher_math")
-//                .password("password") // 暂时明文，如果集成了 Spring Security 需要 new BCryptPasswordEncoder().encode("password")
-//                .fullName("Mr. Anderson") // 致敬黑客帝国
-//                .role(UserRole.TEACHER)
-//                .build();
-//
-//        User teacherScience = User.builder()
-//                .username("teacher_science")
-//                .password("password")
-//                .fullName("Ms. Frizzle") // 致敬神奇校车
-//                .role(UserRole.TEACHER)
-//                .build();
-//
-//        userRepository.saveAll(Arrays.asList(teacherMath, teacherScience));
-//
-//        // --- 2. 创建学生 ---
-//        User student1 = User.builder()
-//                .username("student1")
-//                .password("password")
-//                .fullName("Timmy Turner")
-//                .role(UserRole.STUDENT)
-//                .enrolledCourses(new ArrayList<>()) // 初始化 List 防止空指针
-//                .build();
-//
-//        User student2 = User.builder()
-//                .username("student2")
-//                .password("password")
-//                .fullName("Jimmy Neutron")
-//                .role(UserRole.STUDENT)
-//                .enrolledCourses(new ArrayList<>())
-//                .build();
-//
-//        userRepository.saveAll(Arrays.asList(student1, student2));
-//
-//        // --- 3. 创建课程并关联 ---
-//
-//        // 课程 1：数学基础 (由 Mr. Anderson 教)
-//        Course mathCourse = Course.builder()
-//                .title("Grade 5 Math: Fractions")
-//                .description("Learn how to add and subtract fractions.")
-//                .subject("Math")
-//                .inviteCode("MATH101")
-//                .teacher(teacherMath)
-//                .students(new ArrayList<>()) // 初始化
-//                .build();
-//
-//        // 课程 2：科学实验 (由 Ms. Frizzle 教)
-//        Course scienceCourse = Course.builder()
-//                .title("Junior Science: Photosynthesis")
-//                .description("Understanding how plants eat sunlight.")
-//                .subject("Science")
-//                .inviteCode("SCI202")
-//                .teacher(teacherScience)
-//                .students(new ArrayList<>())
-//                .build();
-//
-//        // --- 4. 建立选课关系 (Enrollment) ---
-//        // 这是一个 ManyToMany 关系。
-//        // 在 JPA 中，通常建议维护关系的“拥有方” (Owning Side)。
-//        // 在 User.java 中我们定义了 enrolledCourses 是 JoinTable，所以 User 是拥有方。
-//
-//        // 让 Timmy 选修两门课
-//        student1.getEnrolledCourses().add(mathCourse);
-//        student1.getEnrolledCourses().add(scienceCourse);
-//
-//        // 让 Jimmy 只选修数学
-//        student2.getEnrolledCourses().add(mathCourse);
-//
-//        // 注意：因为 Course 里有 students 列表 (mappedBy)，为了保持对象状态一致性，最好双向都 add 一下
-//        // 虽然存数据库主要靠 owning side，但为了防止此时内存中逻辑错误，建议加上：
-//        mathCourse.getStudents().add(student1);
-//        mathCourse.getStudents().add(student2);
-//        scienceCourse.getStudents().add(student1);
-//
-//        // 先保存课程 (因为 User 引用了 Course)
-//        courseRepository.saveAll(Arrays.asList(mathCourse, scienceCourse));
-//
-//        // 再更新并保存学生 (更新他们的关联表)
-//        userRepository.saveAll(Arrays.asList(student1, student2));
-//
-//        Assignment assignment1 = Assignment.builder()
-//                .title("Homework 1: Add Fractions")
-//                .description("Solve page 10-12 in your textbook.")
-//                .maxScore(100)
-//                .dueDate(java.time.LocalDateTime.now().plusDays(7)) // 一周后截止
-//                .course(mathCourse)
-//                .build();
-//
-//        // 这个作业是 "AI 生成" 的例子
-//        Assignment assignment2 = Assignment.builder()
-//                .title("Quiz: Photosynthesis Basics")
-//                .description("Explain the role of Chlorophyll in 3 sentences.")
-//                .maxScore(10)
-//                .dueDate(java.time.LocalDateTime.now().plusDays(3))
-//                .course(scienceCourse)
-//                .build();
-//
-//        assignmentRepository.saveAll(Arrays.asList(assignment1, assignment2));
-//
-//        // --- 6. 创建提交 (Submissions) ---
-//
-//        // Timmy 提交了数学作业
-//        Submission sub1 = Submission.builder()
-//                .assignment(assignment1)
-//                .student(student1)
-//                .content("1/2 + 1/4 = 3/4. I think this is correct.")
-//                .status(SubmissionStatus.SUBMITTED)
-//                .submittedAt(java.time.LocalDateTime.now())
-//                .build();
-//
-//        // Jimmy 也提交了数学作业，而且老师已经批改了 (展示已完成状态)
-//        Submission sub2 = Submission.builder()
-//                .assignment(assignment1)
-//                .student(student2)
-//                .content("1/2 + 1/4 = 2/6") // 错误的答案
-//                .grade(50)
-//                .feedback("Remember to find the common denominator!")
-//                .status(SubmissionStatus.GRADED)
-//                .submittedAt(java.time.LocalDateTime.now().minusHours(2))
-//                .build();
-//
-//        submissionRepository.saveAll(Arrays.asList(sub1, sub2));
-//
-//        System.out.println("测试数据初始化完成！");
-//        System.out.println("老师账号: teacher_math / password");
-//        System.out.println("学生账号: student1 / password");
-//    }
-//}
\ No newline at end of file
+package com.pm.backend;
+
+import com.pm.backend.service.SubmissionPartitionJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Synthetic dataset for performance work: java -jar backend.jar --spring.profiles.active=seed
+ * Volumes come from application-seed.properties (defaults: 50k students, 2k courses, 40k assignments, ~2M submissions).
+ * Rows are generated inside PostgreSQL with INSERT ... SELECT over generate_series, so nothing is
+ * materialized in the JVM and each table is filled by one statement (submissions by one statement per course chunk).
+ */
+@Slf4j
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class DataSeeder implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SubmissionPartitionJob submissionPartitionJob;
+
+    @Value("${lms.seed.teachers:1000}")
+    private int teachers;
+
+    @Value("${lms.seed.students:50000}")
+    private int students;
+
+    @Value("${lms.seed.courses:2000}")
+    private int courses;
+
+    @Value("${lms.seed.assignments-per-course:20}")
+    private int assignmentsPerCourse;
+
+    @Value("${lms.seed.courses-per-student:5}")
+    private int coursesPerStudent;
+
+    @Value("${lms.seed.submissions:2000000}")
+    private long submissions;
+
+    @Value("${lms.seed.chunk-courses:100}")
+    private int chunkCourses;
+
+    @Override
+    public void run(String... args) {
+        // if the database already has data, skip
+        Long users = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+        if (users != null && users > 0) {
+            log.info("Users already present, skipping seed");
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        log.info("Seeding {} teachers, {} students, {} courses, {} assignments, ~{} submissions",
+                teachers, students, courses, (long) courses * assignmentsPerCourse, submissions);
+
+        timed("teachers", () -> jdbcTemplate.update("""
+                INSERT INTO users (username, password, full_name, role, created_at)
+                SELECT 'teacher' || g, 'password', 'Teacher ' || g, 'TEACHER', now() - interval '1 year'
+                FROM generate_series(1, ?) g
+                """, teachers));
+        timed("students", () -> jdbcTemplate.update("""
+                INSERT INTO users (username, password, full_name, role, created_at)
+                SELECT 'student' || g, 'password', 'Student ' || g, 'STUDENT', now() - interval '1 year'
+                FROM generate_series(1, ?) g
+                """, students));
+
+        // identity columns hand out contiguous ids within one statement, so ranges can be addressed arithmetically
+        long firstTeacher = firstId("SELECT min(id) FROM users WHERE role = 'TEACHER'");
+        long firstStudent = firstId("SELECT min(id) FROM users WHERE role = 'STUDENT'");
+
+        timed("courses", () -> jdbcTemplate.update("""
+                INSERT INTO courses (title, description, subject, invite_code, teacher_id, created_at)
+                SELECT (ARRAY['Math', 'Science', 'History', 'Art', 'Music', 'English', 'Biology', 'Physics'])[1 + g % 8]
+                           || ' ' || (100 + g),
+                       'Section ' || g || ': weekly readings, problem sets and a final project.',
+                       (ARRAY['Math', 'Science', 'History', 'Art', 'Music', 'English', 'Biology', 'Physics'])[1 + g % 8],
+                       'C' || lpad(g::text, 7, '0'),
+                       ? + (g % ?),
+                       now() - interval '120 days'
+                FROM generate_series(1, ?) g
+                """, firstTeacher, teachers, courses));
+        long firstCourse = firstId("SELECT min(id) FROM courses");
+
+        // due dates spread from ~10 weeks ago to ~10 weeks ahead so both graded and open work exist
+        timed("assignments", () -> jdbcTemplate.update("""
+                INSERT INTO assignments (title, description, due_date, max_score, course_id, created_at)
+                SELECT 'Assignment ' || n, 'Read chapter ' || n || ' and answer the discussion questions.',
+                       date_trunc('day', now()) + ((n * 7) - 70) * interval '1 day' + (c.id % 24) * interval '1 hour',
+                       100, c.id, now() - interval '120 days'
+                FROM courses c CROSS JOIN generate_series(1, ?) n
+                """, assignmentsPerCourse));
+        // submissions can only be stored once a partition covers their assignment ids
+        submissionPartitionJob.createFuturePartitions();
+
+        // student s takes courses (s * 7919 + k * 104729) mod courses for k = 1..coursesPerStudent
+        timed("enrollments", () -> jdbcTemplate.update("""
+                INSERT INTO enrollments (student_id, course_id)
+                SELECT DISTINCT s, ? + ((s * 7919 + k * 104729) % ?)
+                FROM generate_series(?::bigint, ? - 1) s CROSS JOIN generate_series(1, ?) k
+                """, firstCourse, courses, firstStudent, firstStudent + students, coursesPerStudent));
+
+        Long pairs = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM enrollments e JOIN assignments a ON a.course_id = e.course_id
+                """, Long.class);
+        double rate = pairs == null || pairs == 0 ? 0 : Math.min(1.0, (double) submissions / pairs);
+
+        // past-due work is graded with a bell-ish distribution, open work is waiting for grading.
+        // Bodies are written inline and served from there; LegacyContentMigrator moves them into the blob store
+        // when lms.blobs.migration.enabled is set.
+        for (long from = firstCourse; from < firstCourse + courses; from += chunkCourses) {
+            long to = Math.min(from + chunkCourses, firstCourse + courses);
+            long chunkFrom = from;
+            timed("submissions for courses " + from + "-" + (to - 1), () -> jdbcTemplate.update("""
+                    INSERT INTO submissions (assignment_id, student_id, content, search_vector,
+                                             status, grade, feedback, submitted_at)
+                    SELECT a.id, e.student_id, b.body, to_tsvector('english', b.body),
+                           CASE WHEN a.due_date < now() THEN 'GRADED' ELSE 'SUBMITTED' END,
+                           CASE WHEN a.due_date < now()
+                                THEN least(100, greatest(0, round(78 + 12 * (random() + random() + random() - 1.5) * 2)))::int
+                           END,
+                           CASE WHEN a.due_date < now() THEN 'Graded automatically by the seeder' END,
+                           a.due_date - random() * interval '5 days'
+                    FROM assignments a
+                    JOIN enrollments e ON e.course_id = a.course_id
+                    CROSS JOIN LATERAL (
+                        SELECT 'Answer from student ' || e.student_id || ' to assignment ' || a.id || '. '
+                                   || repeat('Lorem ipsum dolor sit amet. ', 1 + (e.student_id % 20)::int) AS body
+                    ) b
+                    WHERE a.course_id >= ? AND a.course_id < ? AND random() < ?
+                    """, chunkFrom, to, rate));
+        }
+
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Seed finished in {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private long firstId(String sql) {
+        Long id = jdbcTemplate.queryForObject(sql, Long.class);
+        if (id == null) throw new IllegalStateException("Seed step produced no rows: " + sql);
+        return id;
+    }
+
+    private void timed(String step, IntSupplier statement) {
+        long started = System.currentTimeMillis();
+        int rows = statement.getAsInt();
+        log.info("Seeded {} {} in {} ms", rows, step, System.currentTimeMillis() - started);
+    }
+}
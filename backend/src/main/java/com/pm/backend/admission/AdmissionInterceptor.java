@@ -0,0 +1,177 @@
+package com.pm.backend.admission;
+
+import com.pm.backend.config.RequestUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admission control in front of the controllers. A request is shed with 429 and Retry-After when
+ * <ul>
+ *   <li>its user (studentId / userId parameter) has used up their token bucket: critical handlers and the rest
+ *       draw from separate buckets, so polling cannot eat a student's submit budget;</li>
+ *   <li>the number of requests in flight has reached the limit for its priority: ordinary requests stop at
+ *       max-concurrent minus the critical reserve, {@link Critical} ones may use the reserve. Under a read flood the
+ *       reserve is what is left for submits, both in threads and in waiters on the connection pool.</li>
+ * </ul>
+ * Nothing queues here: a request is admitted or rejected on a couple of CAS operations. Long-lived async requests
+ * (SSE streams) are not counted. A streamed body (NDJSON gradebook, CSV export, submission content) may write for
+ * up to the async request timeout, so it never takes one of the slots above: streamed bodies have their own cap,
+ * max-streams, and keep that slot until the async request completes, times out or fails, since it still holds a
+ * thread and often a pooled connection while it writes. A few slow downloads then shed other downloads, never
+ * reads, grading or submits.
+ * <p>
+ * max-concurrent defaults to the connection pool size and critical-share of it is reserved, so the limits follow
+ * the pool (and the virtual-thread profile's larger one) without being restated.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = AdmissionInterceptor.class.getName() + ".ADMITTED";
+    private static final String OVERLOAD_RETRY_AFTER = "1";
+
+    private final int maxConcurrent;
+    private final int criticalReserve;
+    private final int maxStreams;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger streams = new AtomicInteger();
+    private final TokenBucketLimiter criticalLimiter;
+    private final TokenBucketLimiter defaultLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(@Value("${lms.admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                                @Value("${lms.admission.critical-share:0.5}") double criticalShare,
+                                @Value("${lms.admission.max-streams:4}") int maxStreams,
+                                @Value("${lms.ratelimit.critical.rate:2}") double criticalRate,
+                                @Value("${lms.ratelimit.critical.burst:5}") int criticalBurst,
+                                @Value("${lms.ratelimit.default.rate:20}") double defaultRate,
+                                @Value("${lms.ratelimit.default.burst:40}") int defaultBurst,
+                                @Value("${lms.ratelimit.maximum-users:100000}") long maximumUsers,
+                                MeterRegistry meterRegistry) {
+        if (criticalShare <= 0 || criticalShare >= 1) {
+            throw new IllegalArgumentException("lms.admission.critical-share must be between 0 and 1");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.criticalReserve = (int) Math.ceil(maxConcurrent * criticalShare);
+        if (criticalReserve >= maxConcurrent) {
+            throw new IllegalArgumentException("lms.admission.critical-share leaves no slot for ordinary requests");
+        }
+        this.maxStreams = maxStreams;
+        this.criticalLimiter = new TokenBucketLimiter(criticalRate, criticalBurst, maximumUsers);
+        this.defaultLimiter = new TokenBucketLimiter(defaultRate, defaultBurst, maximumUsers);
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("lms.admission.in.flight", inFlight);
+        meterRegistry.gauge("lms.admission.streams", streams);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async re-dispatch of an already admitted request, or something that is not a controller method
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        if (isEventStream(method)) {
+            return true;
+        }
+        boolean streamed = isStreamedBody(method);
+        boolean critical = !streamed && method.hasMethodAnnotation(Critical.class);
+        String priority = streamed ? "stream" : critical ? "critical" : "default";
+
+        Long userId = RequestUser.userId(request);
+        if (userId != null) {
+            Duration wait = (critical ? criticalLimiter : defaultLimiter).tryAcquire(userId);
+            if (!wait.isZero()) {
+                return reject(response, priority, "rate-limit", Long.toString(Math.max(1, wait.toSeconds() + 1)));
+            }
+        }
+
+        AtomicInteger counter = streamed ? streams : inFlight;
+        int limit = streamed ? maxStreams : critical ? maxConcurrent : maxConcurrent - criticalReserve;
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) return reject(response, priority, "overload", OVERLOAD_RETRY_AFTER);
+            if (counter.compareAndSet(current, current + 1)) break;
+        }
+        // the counter the slot was taken from; cleared by the first release
+        request.setAttribute(ADMITTED, new AtomicReference<>(counter));
+        return true;
+    }
+
+    // the handler returned but the response is still being produced on another thread; whichever of the async
+    // re-dispatch and the container's completion callbacks comes first gives the slot back
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(ADMITTED) == null || !request.isAsyncStarted()) return;
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release(request);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                release(request);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release(request);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!request.isAsyncStarted()) release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(ADMITTED) instanceof AtomicReference<?> admitted
+                && admitted.getAndSet(null) instanceof AtomicInteger counter) {
+            counter.decrementAndGet();
+        }
+    }
+
+    private boolean reject(HttpServletResponse response, String priority, String reason, String retryAfter) {
+        meterRegistry.counter("lms.admission.rejected", "priority", priority, "reason", reason).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        return false;
+    }
+
+    private static boolean isEventStream(HandlerMethod method) {
+        return SseEmitter.class.isAssignableFrom(method.getReturnType().getParameterType());
+    }
+
+    // a body written after the handler returns, directly or inside a ResponseEntity
+    private static boolean isStreamedBody(HandlerMethod method) {
+        ResolvableType type = ResolvableType.forMethodParameter(method.getReturnType());
+        if (ResponseEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        Class<?> body = type.toClass();
+        return StreamingResponseBody.class.isAssignableFrom(body) || ResponseBodyEmitter.class.isAssignableFrom(body);
+    }
+}
@@ -0,0 +1,15 @@
+package com.pm.backend.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method as critical for admission control: it may use the capacity reserved by
+ * {@code lms.admission.critical-share}, so it keeps being admitted while ordinary traffic is shed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Critical {
+}
@@ -0,0 +1,50 @@
+package com.pm.backend.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token bucket: {@code ratePerSecond} tokens refill continuously, at most {@code burst} are held.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} in GCRA form (the "theoretical arrival time" at which the bucket would
+ * be empty again), updated with a CAS loop, so taking a token never locks. Buckets sit in a bounded Caffeine map,
+ * whose striped table keeps different users from contending; idle buckets are full by definition and are evicted.
+ */
+public class TokenBucketLimiter {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final long origin = System.nanoTime();
+    private final Cache<Long, AtomicLong> buckets;
+
+    public TokenBucketLimiter(double ratePerSecond, int burst, long maximumKeys) {
+        if (ratePerSecond <= 0 || burst < 1) throw new IllegalArgumentException("rate and burst must be positive");
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstTolerance = emissionInterval * (burst - 1);
+        // once idle for a full burst window a bucket is back to full, so forgetting it changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofNanos(emissionInterval + burstTolerance))
+                .build();
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return {@link Duration#ZERO} if the token was granted, otherwise how long until one is available
+     */
+    public Duration tryAcquire(Long key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong());
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long tat = bucket.get();
+            long wait = tat - burstTolerance - now;
+            if (wait > 0) return Duration.ofNanos(wait);
+            if (bucket.compareAndSet(tat, Math.max(tat, now) + emissionInterval)) return Duration.ZERO;
+        }
+    }
+}
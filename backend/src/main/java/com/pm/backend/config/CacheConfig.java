@@ -0,0 +1,38 @@
+package com.pm.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String COURSES = "courses";
+    public static final String ASSIGNMENTS = "assignments";
+    public static final String COURSE_ASSIGNMENTS = "courseAssignments";
+
+    // Evictions are deferred until the writing transaction commits. Reads use @Cacheable(sync = true), so an
+    // eviction also waits for any in-flight load of the same key and drops whatever that load produced:
+    // once createAssignment returns, no reader can see a list without the new assignment.
+    @Bean
+    public CacheManager cacheManager(@Value("${lms.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${lms.cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        caffeine.setCacheNames(List.of(COURSES, ASSIGNMENTS, COURSE_ASSIGNMENTS));
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,35 @@
+package com.pm.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Puts the matched route ("GET /api/assignments/{assignmentId}/submissions") into the logging MDC for the
+ * duration of the request, so log lines written below the controller (slow queries in particular) can be
+ * traced back to the endpoint that caused them. The route pattern rather than the raw URI keeps it groupable.
+ */
+public class EndpointMdcInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String MDC_KEY = "endpoint";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        MDC.put(MDC_KEY, request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the request thread goes back to the pool; the async part carries its own copy (see ObservabilityConfig)
+        MDC.remove(MDC_KEY);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(MDC_KEY);
+    }
+}
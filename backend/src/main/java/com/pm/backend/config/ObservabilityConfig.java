@@ -0,0 +1,63 @@
+package com.pm.backend.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Request-scoped context for metrics and logs. The meters are http.server.requests per route (Actuator),
+ * lms.service per service method ({@link ServiceTimingAspect}), hikaricp.* for the pool and, when
+ * lms.db.hibernate-statistics is on, hibernate.* for session statistics, all scraped from /actuator/prometheus.
+ */
+@Configuration
+public class ObservabilityConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointMdcInterceptor());
+    }
+
+    // wraps the pool so every statement is timed against lms.db.slow-query-threshold; unwrap() still reaches
+    // the HikariDataSource, so the pool metrics bind as before
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            @Value("${lms.db.slow-query-threshold:200ms}") Duration threshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) return bean;
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new SlowQueryLogger(threshold))
+                        .build();
+            }
+        };
+    }
+
+    // StreamingResponseBody and @Async work runs on the application task executor; carry the endpoint over
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) MDC.setContextMap(context);
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) MDC.setContextMap(previous);
+                    else MDC.clear();
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.pm.backend.config;
+
+import com.pm.backend.datasource.ReadYourWrites;
+import com.pm.backend.datasource.ReadYourWritesInterceptor;
+import com.pm.backend.datasource.ReplicaRoutingDataSource;
+import com.pm.backend.datasource.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Read replicas, active only when {@code lms.datasource.replicas} lists at least one JDBC URL. Otherwise Boot's
+ * single pool is used unchanged.
+ * <p>
+ * {@code @Transactional(readOnly = true)} work goes to a replica, everything else to the primary. The switch is a
+ * LazyConnectionDataSourceProxy, which fetches the physical connection at the first statement, once the
+ * transaction is known to be read-only, and takes it from {@link ReplicaRoutingDataSource} in that case.
+ * Replicas are pooled like the primary (spring.datasource.hikari.*) and report as hikaricp pools replica-N.
+ */
+@Configuration
+@ConditionalOnProperty("lms.datasource.replicas")
+public class ReplicaDataSourceConfig implements WebMvcConfigurer {
+
+    private final ReadYourWrites readYourWrites;
+    // not a bean of its own: every DataSource bean gets wrapped for slow-query logging, and only the outer one should
+    private volatile ReplicaRoutingDataSource replicaRouting;
+    // the bean is the proxy in front of them, which has nothing to close, so the pools are shut down here
+    private final List<HikariDataSource> pools = new CopyOnWriteArrayList<>();
+
+    public ReplicaDataSourceConfig(@Value("${lms.datasource.read-your-writes:10s}") Duration readYourWritesWindow,
+                                   @Value("${lms.ratelimit.maximum-users:100000}") long maximumUsers) {
+        this.readYourWrites = new ReadYourWrites(readYourWritesWindow, maximumUsers);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${lms.datasource.replicas}") List<String> urls,
+                                 @Value("${lms.datasource.replica-max-lag:5s}") Duration maxLag) {
+        HikariDataSource primary = pool(properties, environment, properties.determineUrl());
+        pools.add(primary);
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = pool(properties, environment, urls.get(i));
+            pools.add(pool);
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            Gauge.builder("lms.datasource.replica.lag", replica, Replica::lagMillis)
+                    .tag("replica", replica.name())
+                    .baseUnit("milliseconds")
+                    .description("Replication lag; -1 while the replica is down or not yet checked")
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        replicaRouting = new ReplicaRoutingDataSource(primary, replicas, maxLag);
+        replicaRouting.refreshLag();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaRouting);
+        return dataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${lms.datasource.replica-check-interval:1s}")
+    public void checkReplicaLag() {
+        ReplicaRoutingDataSource routing = replicaRouting;
+        if (routing != null) routing.refreshLag();
+    }
+
+    @PreDestroy
+    void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWrites)).addPathPatterns("/api/**");
+    }
+
+    // same pool settings as the primary, pointed at another server
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+}
@@ -0,0 +1,24 @@
+package com.pm.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The user a request acts for. There is no authentication yet, so this is the studentId or userId parameter
+ * the endpoints already take; null when the request names no user.
+ */
+public final class RequestUser {
+
+    private RequestUser() {
+    }
+
+    public static Long userId(HttpServletRequest request) {
+        String value = request.getParameter("studentId");
+        if (value == null) value = request.getParameter("userId");
+        if (value == null) return null;
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pm.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the application services (classes named *Service in com.pm.backend.service) as
+ * lms.service, tagged with class, method and exception like Micrometer's @Timed. One pointcut instead of an
+ * annotation per class, so a new service is measured without anyone remembering to add it; histogram buckets
+ * are switched on in application.properties.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.pm.backend.service.*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Signature signature = joinPoint.getSignature();
+            sample.stop(Timer.builder("lms.service")
+                    .description("Time spent in application service methods")
+                    .tag("class", signature.getDeclaringTypeName())
+                    .tag("method", signature.getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
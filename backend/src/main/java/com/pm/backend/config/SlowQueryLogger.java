@@ -0,0 +1,44 @@
+package com.pm.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs every JDBC statement that runs longer than the threshold, together with the endpoint that issued it.
+ * Sits on the DataSource, so JPA, JPQL projections and the JdbcTemplate repositories are all covered.
+ */
+@Slf4j
+public class SlowQueryLogger implements QueryExecutionListener {
+
+    private final long thresholdMillis;
+
+    public SlowQueryLogger(Duration threshold) {
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis || !log.isWarnEnabled()) return;
+
+        String endpoint = MDC.get(EndpointMdcInterceptor.MDC_KEY);
+        String sql = queryInfoList.stream()
+                .map(q -> q.getQuery().replaceAll("\\s+", " ").trim())
+                .collect(Collectors.joining("; "));
+        log.warn("Slow query: {} ms, endpoint={}, batch={}, rows={}, sql={}",
+                elapsed, endpoint != null ? endpoint : "none (" + Thread.currentThread().getName() + ")",
+                execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                execInfo.getResult() instanceof Integer count ? count : "-", sql);
+    }
+}
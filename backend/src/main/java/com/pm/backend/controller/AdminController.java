@@ -0,0 +1,43 @@
+package com.pm.backend.controller;
+
+import com.pm.backend.dto.PartitionMaintenanceResult;
+import com.pm.backend.dto.ProgressRepairResult;
+import com.pm.backend.dto.SubmissionPartition;
+import com.pm.backend.service.ProgressRepairJob;
+import com.pm.backend.service.SubmissionPartitionJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ProgressRepairJob progressRepairJob;
+    private final SubmissionPartitionJob submissionPartitionJob;
+
+    // POST /api/admin/progress/repair
+    // recounts every course's progress counters now instead of waiting for the scheduled pass
+    @PostMapping("/progress/repair")
+    public ResponseEntity<ProgressRepairResult> repairProgress() {
+        return ResponseEntity.ok(progressRepairJob.repairAll());
+    }
+
+    // GET /api/admin/partitions
+    // the attached partitions of submissions in assignment id order, with the planner's row estimates
+    @GetMapping("/partitions")
+    public ResponseEntity<List<SubmissionPartition>> getPartitions() {
+        return ResponseEntity.ok(submissionPartitionJob.getPartitions());
+    }
+
+    // POST /api/admin/partitions/maintain
+    // creates upcoming partitions and archives cold ones now instead of waiting for the scheduled run
+    @PostMapping("/partitions/maintain")
+    public ResponseEntity<PartitionMaintenanceResult> maintainPartitions() {
+        return ResponseEntity.ok(submissionPartitionJob.maintain());
+    }
+}
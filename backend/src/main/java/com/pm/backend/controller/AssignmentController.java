@@ -1,10 +1,17 @@
 package com.pm.backend.controller;
 
+import com.pm.backend.dto.AssignmentView;
 import com.pm.backend.entity.Assignment;
 import com.pm.backend.service.AssignmentService;
+import com.pm.backend.service.CourseVersions;
+import com.pm.backend.service.SubmissionEventHub;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -15,32 +22,47 @@ import java.util.List;
 public class AssignmentController {
 
     private final AssignmentService assignmentService;
+    private final SubmissionEventHub eventHub;
+    private final CourseVersions courseVersions;
 
 
     // GET /api/assignments?courseId=1
+    // ETag = course version; a poll with a current If-None-Match gets 304 without a cache or DB lookup
     @GetMapping
-    public ResponseEntity<List<Assignment>> getAssignments(@RequestParam Long courseId) {
-        List<Assignment> assignments = assignmentService.getAssignmentsByCourse(courseId);
-        return ResponseEntity.ok(assignments);
+    public ResponseEntity<List<AssignmentView>> getAssignments(@RequestParam Long courseId, WebRequest request) {
+        String eTag = courseVersions.courseTag(courseId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<AssignmentView> assignments = assignmentService.getAssignmentsByCourse(courseId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(assignments);
     }
 
 
     // GET /api/assignments/5
     @GetMapping("/{id}")
-    public ResponseEntity<Assignment> getAssignment(@PathVariable Long id) {
-        Assignment assignment = assignmentService.getAssignmentById(id);
+    public ResponseEntity<AssignmentView> getAssignment(@PathVariable Long id) {
+        AssignmentView assignment = assignmentService.getAssignmentById(id);
         return ResponseEntity.ok(assignment);
     }
 
     // POST /api/assignments?userId=1&courseId=1
     // Body: { "title": "...", "description": "...", "dueDate": "2025-12-25T23:59:00" }
     @PostMapping
-    public ResponseEntity<Assignment> createAssignment(
+    public ResponseEntity<AssignmentView> createAssignment(
             @RequestParam Long userId,
             @RequestParam Long courseId,
             @RequestBody Assignment assignmentData) {
 
-        Assignment created = assignmentService.createAssignment(userId, courseId, assignmentData);
+        AssignmentView created = assignmentService.createAssignment(userId, courseId, assignmentData);
         return ResponseEntity.ok(created);
     }
-}
\ No newline at end of file
+
+    // GET /api/assignments/5/events
+    // Server-Sent Events: SUBMITTED / GRADED / BULK_GRADED / CLOSED as they commit, plus a keep-alive comment
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAssignmentEvents(@PathVariable Long id) {
+        assignmentService.getAssignmentById(id);
+        return eventHub.subscribeToAssignment(id);
+    }
+}
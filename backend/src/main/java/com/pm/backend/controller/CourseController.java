@@ -1,11 +1,34 @@
 package com.pm.backend.controller;
 
+import com.pm.backend.dto.CourseProgress;
+import com.pm.backend.dto.CourseView;
+import com.pm.backend.dto.Gradebook;
+import com.pm.backend.dto.RosterImportResult;
 import com.pm.backend.entity.Course;
 import com.pm.backend.service.CourseService;
+import com.pm.backend.service.CourseVersions;
+import com.pm.backend.service.GradebookService;
+import com.pm.backend.service.ProgressService;
+import com.pm.backend.service.RosterCsvParser;
+import com.pm.backend.service.SubmissionEventHub;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -15,27 +38,116 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final GradebookService gradebookService;
+    private final ProgressService progressService;
+    private final SubmissionEventHub eventHub;
+    private final CourseVersions courseVersions;
+    private final JsonMapper jsonMapper;
 
     // GET /api/courses?userId=1
+    // ETag moves whenever a course is created or joined; repeat polls get 304 without a DB lookup
     @GetMapping
-    public ResponseEntity<List<Course>> getCourses(@RequestParam Long userId) {
-        List<Course> courses = courseService.getCoursesForUser(userId);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<CourseView>> getCourses(@RequestParam Long userId, WebRequest request) {
+        String eTag = courseVersions.courseListTag(userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<CourseView> courses = courseService.getCoursesForUser(userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(courses);
     }
 
     // GET /api/courses/5
     @GetMapping("/{courseId}")
-    public ResponseEntity<Course> getCourseDetail(@PathVariable Long courseId) {
-        Course course = courseService.getCourseById(courseId);
+    public ResponseEntity<CourseView> getCourseDetail(@PathVariable Long courseId) {
+        CourseView course = courseService.getCourseById(courseId);
         return ResponseEntity.ok(course);
     }
 
     //  POST /api/courses?userId=1  Body: { "title": "Art Class", "subject": "Art" }
     @PostMapping
-    public ResponseEntity<Course> createCourse(
+    public ResponseEntity<CourseView> createCourse(
             @RequestParam Long userId,
             @RequestBody Course courseData) {
-        Course newCourse = courseService.createCourse(userId, courseData);
+        CourseView newCourse = courseService.createCourse(userId, courseData);
         return ResponseEntity.ok(newCourse);
     }
+
+    // POST /api/courses/join?userId=2  Body: { "inviteCode": "K7QF2M9X" }
+    @PostMapping("/join")
+    public ResponseEntity<CourseView> joinCourse(
+            @RequestParam Long userId,
+            @RequestBody JoinRequest request) {
+        return ResponseEntity.ok(courseService.joinCourse(userId, request.getInviteCode()));
+    }
+
+    // POST /api/courses/5/roster?userId=1  Body: ["alice", "bob"]
+    @PostMapping(value = "/{courseId}/roster", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RosterImportResult> importRoster(
+            @PathVariable Long courseId,
+            @RequestParam Long userId,
+            @RequestBody List<String> usernames) {
+        return ResponseEntity.ok(courseService.importRoster(userId, courseId, usernames));
+    }
+
+    // POST /api/courses/5/roster?userId=1  (multipart, field "file")
+    // CSV: one username per line
+    @PostMapping(value = "/{courseId}/roster", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<RosterImportResult> uploadRoster(
+            @PathVariable Long courseId,
+            @RequestParam Long userId,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        List<String> usernames;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            usernames = RosterCsvParser.parse(reader);
+        }
+        return ResponseEntity.ok(courseService.importRoster(userId, courseId, usernames));
+    }
+
+    // GET /api/courses/5/progress
+    // pending / submitted / graded / late counts and average grade, per assignment and for the course
+    @GetMapping("/{courseId}/progress")
+    public ResponseEntity<CourseProgress> getProgress(@PathVariable Long courseId) {
+        return ResponseEntity.ok(progressService.getCourseProgress(courseId));
+    }
+
+    // GET /api/courses/5/gradebook
+    @GetMapping(value = "/{courseId}/gradebook", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Gradebook> getGradebook(@PathVariable Long courseId) {
+        return ResponseEntity.ok(gradebookService.getGradebook(courseId));
+    }
+
+    // GET /api/courses/5/gradebook  Accept: application/x-ndjson
+    // line 1: { "courseId", "assignments": [...], "students": [] }, then one student row per line
+    @GetMapping(value = "/{courseId}/gradebook", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamGradebook(@PathVariable Long courseId) {
+        courseService.getCourseById(courseId);
+
+        StreamingResponseBody body = out -> gradebookService.streamGradebook(courseId,
+                header -> writeLine(out, header),
+                row -> writeLine(out, row));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // GET /api/courses/1/events
+    // Server-Sent Events: SUBMITTED / GRADED / BULK_GRADED / CLOSED as they commit, plus a keep-alive comment
+    @GetMapping(value = "/{courseId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCourseEvents(@PathVariable Long courseId) {
+        courseService.getCourseById(courseId);
+        return eventHub.subscribeToCourse(courseId);
+    }
+
+    @Data
+    public static class JoinRequest {
+        private String inviteCode;
+    }
 }
@@ -0,0 +1,23 @@
+package com.pm.backend.controller;
+
+import com.pm.backend.dto.StudentDashboard;
+import com.pm.backend.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    // GET /api/dashboard?userId=2
+    // the student's courses plus upcoming assignments with their own submission status
+    @GetMapping
+    public ResponseEntity<StudentDashboard> getDashboard(@RequestParam Long userId) {
+        return ResponseEntity.ok(dashboardService.getStudentDashboard(userId));
+    }
+}
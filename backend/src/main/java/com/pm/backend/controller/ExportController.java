@@ -0,0 +1,116 @@
+package com.pm.backend.controller;
+
+import com.pm.backend.dto.SubmissionExportRow;
+import com.pm.backend.service.CourseService;
+import com.pm.backend.service.CsvWriter;
+import com.pm.backend.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Bulk CSV exports, streamed from a database cursor straight into the response. Each running export holds a
+ * pooled connection for its whole duration, so only lms.export.max-concurrent run at a time; more get 429.
+ * The slot is taken before answering, so the 429 can still be sent, and given back when the body finishes or, if
+ * the body never runs (client gone, async timeout or error first), when the async request completes.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final ExportService exportService;
+    private final CourseService courseService;
+    private final Semaphore running;
+
+    public ExportController(ExportService exportService,
+                            CourseService courseService,
+                            @Value("${lms.export.max-concurrent:2}") int maxConcurrent) {
+        this.exportService = exportService;
+        this.courseService = courseService;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    // GET /api/courses/5/export
+    // every assignment x roster student of the course, ordered by due date, assignment and student name
+    @GetMapping("/courses/{courseId}/export")
+    public ResponseEntity<StreamingResponseBody> exportCourse(@PathVariable Long courseId, HttpServletRequest request) {
+        courseService.getCourseById(courseId);
+        return csv(request, "course-" + courseId + "-submissions.csv",
+                rows -> exportService.streamCourseExport(courseId, rows));
+    }
+
+    // GET /api/admin/export?from=2026-01-01&to=2026-06-30
+    // the same rows for every assignment due in the term (both days included), across all courses, unordered
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportTerm(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Term end must not be before its start");
+        }
+        return csv(request, "submissions-" + from + "-" + to + ".csv",
+                rows -> exportService.streamTermExport(from, to, rows));
+    }
+
+    private ResponseEntity<StreamingResponseBody> csv(HttpServletRequest request, String filename,
+                                                      Consumer<Consumer<SubmissionExportRow>> export) {
+        if (!running.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) running.release();
+        };
+        // called once the async request is over for any reason, whether or not the body ran
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportController.class,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        release.run();
+                    }
+                });
+        StreamingResponseBody body = out -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER)) {
+                CsvWriter csv = new CsvWriter(writer);
+                csv.writeRecord("course_id", "assignment_id", "assignment_title", "due_date", "max_score",
+                        "student_id", "username", "full_name", "submission_id", "status", "grade", "late",
+                        "submitted_at", "feedback");
+                export.accept(row -> csv.writeRecord(row.courseId(), row.assignmentId(), row.assignmentTitle(),
+                        row.dueDate(), row.maxScore(), row.studentId(), row.username(), row.fullName(),
+                        row.submissionId(), row.status(), row.grade(), row.late(), row.submittedAt(),
+                        row.feedback()));
+            } finally {
+                release.run();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,40 @@
+package com.pm.backend.controller;
+
+import com.pm.backend.dto.ConsumerOffset;
+import com.pm.backend.dto.OutboxEvent;
+import com.pm.backend.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/outbox")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final OutboxService outboxService;
+
+    // GET /api/outbox/events?after=0&limit=500
+    // change stream in position order; pass the last position seen as `after` to continue
+    @GetMapping("/events")
+    public ResponseEntity<List<OutboxEvent>> getEvents(@RequestParam(defaultValue = "0") long after,
+                                                       @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(outboxService.getEvents(after, limit));
+    }
+
+    // GET /api/outbox/consumers
+    @GetMapping("/consumers")
+    public ResponseEntity<List<ConsumerOffset>> getConsumers() {
+        return ResponseEntity.ok(outboxService.getOffsets());
+    }
+
+    // PUT /api/outbox/consumers/analytics/offset?position=1200
+    // stores a pull consumer's offset; moving any consumer back replays the events after the new position
+    @PutMapping("/consumers/{consumer}/offset")
+    public ResponseEntity<ConsumerOffset> setOffset(@PathVariable String consumer, @RequestParam long position) {
+        return ResponseEntity.ok(outboxService.setOffset(consumer, position));
+    }
+}
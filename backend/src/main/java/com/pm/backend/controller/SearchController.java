@@ -0,0 +1,27 @@
+package com.pm.backend.controller;
+
+import com.pm.backend.dto.SearchResults;
+import com.pm.backend.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // GET /api/search?userId=1&q=photosynthesis -essay&offset=0&limit=20
+    // web-search syntax: quoted phrases, "or", and -term to exclude
+    @GetMapping
+    public ResponseEntity<SearchResults> search(
+            @RequestParam Long userId,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(userId, query, offset, limit));
+    }
+}
@@ -1,14 +1,47 @@
 package com.pm.backend.controller;
 
-import com.pm.backend.entity.Submission;
+import com.pm.backend.admission.Critical;
+import com.pm.backend.dto.GradeEntry;
+import com.pm.backend.dto.GradeResult;
+import com.pm.backend.dto.IngestStatus;
+import com.pm.backend.dto.SubmissionContentRef;
+import com.pm.backend.dto.SubmissionPage;
+import com.pm.backend.dto.SubmissionView;
+import com.pm.backend.entity.SubmissionStatus;
+import com.pm.backend.service.CourseVersions;
+import com.pm.backend.service.GradeCsvParser;
+import com.pm.backend.service.SubmissionContentService;
+import com.pm.backend.service.SubmissionContentService.StoredContent;
+import com.pm.backend.service.SubmissionIngestService;
 import com.pm.backend.service.SubmissionService;
+import com.pm.backend.storage.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
@@ -16,41 +49,172 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SubmissionController {
 
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    // below this a plain copy is cheaper than setting up sendfile (same default as Tomcat's DefaultServlet)
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final SubmissionService submissionService;
+    private final SubmissionIngestService ingestService;
+    private final SubmissionContentService contentService;
+    private final BlobStore blobStore;
+    private final CourseVersions courseVersions;
 
     // POST /api/assignments/{assignmentId}/submit?studentId=5
+    // Header (optional): Idempotency-Key: <client-generated id, reused on retries>
     // Body: { "content": "..." }
-    @PostMapping("/assignments/{assignmentId}/submit")
-    public ResponseEntity<Submission> submitAssignment(
+    @Critical
+    @PostMapping(value = "/assignments/{assignmentId}/submit", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submitAssignment(
             @PathVariable Long assignmentId,
             @RequestParam Long studentId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, String> body) { //  Map -> JSON
 
-        String content = body.get("content");
-        Submission submission = submissionService.submitAssignment(studentId, assignmentId, content);
+        StoredContent content = contentService.store(body.get("content"));
+        return accept(studentId, assignmentId, content, idempotencyKey);
+    }
+
+    // POST /api/assignments/{assignmentId}/submit?studentId=5
+    // Content-Type: text/plain (UTF-8) or application/octet-stream; the raw body is streamed to the blob store
+    @Critical
+    @PostMapping(value = "/assignments/{assignmentId}/submit",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> uploadSubmission(
+            @PathVariable Long assignmentId,
+            @RequestParam Long studentId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            InputStream body) throws IOException {
+
+        StoredContent content = contentService.store(body);
+        return accept(studentId, assignmentId, content, idempotencyKey);
+    }
+
+    private ResponseEntity<?> accept(Long studentId, Long assignmentId, StoredContent content, String idempotencyKey) {
+        if (ingestService.isEnabled()) {
+            // async ingestion: 202 + tracking id, or 503 when the queue is full
+            return ingestService.enqueue(studentId, assignmentId, content, idempotencyKey)
+                    .<ResponseEntity<?>>map(status -> ResponseEntity
+                            .accepted()
+                            .location(URI.create("/api/submissions/ingest/" + status.trackingId()))
+                            .body(status))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build());
+        }
+        SubmissionView submission = submissionService.submitAssignment(studentId, assignmentId, content, idempotencyKey);
         return ResponseEntity.ok(submission);
     }
 
 
-    // GET /api/assignments/{assignmentId}/submissions
+    // GET /api/submissions/{submissionId}/content
+    // full body; blobs are immutable, so the hash doubles as a strong ETag
+    @GetMapping("/submissions/{submissionId}/content")
+    public ResponseEntity<StreamingResponseBody> getSubmissionContent(@PathVariable Long submissionId,
+                                                                      HttpServletRequest request) {
+        SubmissionContentRef ref = contentService.getContentRef(submissionId);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().contentType(TEXT_UTF8);
+        if (!ref.inBlobStore()) {
+            byte[] legacy = ref.legacyContent() == null ? new byte[0] : ref.legacyContent().getBytes(StandardCharsets.UTF_8);
+            return ok.contentLength(legacy.length).body(out -> out.write(legacy));
+        }
+
+        String hash = ref.hash();
+        ok.eTag(hash).contentLength(ref.size());
+        Optional<Path> file = blobStore.localPath(hash);
+        if (file.isPresent() && ref.size() >= SENDFILE_MIN_BYTES
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file to the socket with sendfile(2) after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, ref.size());
+            return ok.build();
+        }
+        return ok.body(out -> blobStore.transferTo(hash, Channels.newChannel(out)));
+    }
+
+
+    // GET /api/submissions/ingest/{trackingId}
+    @GetMapping("/submissions/ingest/{trackingId}")
+    public ResponseEntity<IngestStatus> getIngestStatus(@PathVariable String trackingId) {
+        return ResponseEntity.of(ingestService.getStatus(trackingId));
+    }
+
+
+    // GET /api/assignments/{assignmentId}/submissions?cursor=120&limit=50&status=SUBMITTED
+    //     &submittedFrom=2025-12-01T00:00:00&submittedTo=2025-12-25T23:59:00
+    // ETag = version of the assignment's course, moved by every submit and grade in it
     @GetMapping("/assignments/{assignmentId}/submissions")
-    public ResponseEntity<List<Submission>> getSubmissions(@PathVariable Long assignmentId) {
-        List<Submission> list = submissionService.getSubmissionsByAssignment(assignmentId);
-        return ResponseEntity.ok(list);
+    public ResponseEntity<SubmissionPage> getSubmissions(
+            @PathVariable Long assignmentId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) SubmissionStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedTo,
+            WebRequest request) {
+        String eTag = courseVersions.assignmentTag(assignmentId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        SubmissionPage page = submissionService.getSubmissionPage(
+                assignmentId, cursor, limit, status, submittedFrom, submittedTo);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+    }
+
+
+    // GET /api/assignments/{assignmentId}/students/{studentId}/submission
+    // one student's row, so a client holding the list can patch in a SUBMITTED event instead of re-paging
+    @GetMapping("/assignments/{assignmentId}/students/{studentId}/submission")
+    public ResponseEntity<SubmissionView> getStudentSubmission(@PathVariable Long assignmentId,
+                                                               @PathVariable Long studentId) {
+        return ResponseEntity.ok(submissionService.getSubmission(assignmentId, studentId));
     }
 
 
     // PUT /api/submissions/{submissionId}/grade
     // Body: { "grade": 95, "feedback": "Great work!" }
+    // critical like submit: a small write a teacher waits on, rare next to the reads that fill the ordinary slots.
+    // Bulk grading below stays ordinary: one heavy request that is simply retried after a 429
+    @Critical
     @PutMapping("/submissions/{submissionId}/grade")
-    public ResponseEntity<Submission> gradeSubmission(
+    public ResponseEntity<SubmissionView> gradeSubmission(
             @PathVariable Long submissionId,
             @RequestBody GradeRequest request) {
 
-        Submission updated = submissionService.gradeSubmission(submissionId, request.getGrade(), request.getFeedback());
+        SubmissionView updated = submissionService.gradeSubmission(submissionId, request.getGrade(), request.getFeedback());
         return ResponseEntity.ok(updated);
     }
 
+    // POST /api/assignments/{assignmentId}/grades
+    // Body: [ { "submissionId": 7, "grade": 95, "feedback": "Great work!" }, ... ]
+    @PostMapping(value = "/assignments/{assignmentId}/grades", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<GradeResult>> gradeSubmissions(
+            @PathVariable Long assignmentId,
+            @RequestBody List<GradeEntry> entries) {
+
+        return ResponseEntity.ok(submissionService.gradeSubmissions(assignmentId, entries));
+    }
+
+    // POST /api/assignments/{assignmentId}/grades  (multipart, field "file")
+    // CSV: submissionId,grade,feedback
+    @PostMapping(value = "/assignments/{assignmentId}/grades", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<GradeResult>> uploadGrades(
+            @PathVariable Long assignmentId,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        List<GradeEntry> entries;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            entries = GradeCsvParser.parse(reader);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.ok(submissionService.gradeSubmissions(assignmentId, entries));
+    }
+
     @Data
     public static class GradeRequest {
         private Integer grade;
@@ -0,0 +1,44 @@
+package com.pm.backend.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Keeps a user's reads on the primary for a while after they wrote, so a student who just submitted sees the
+ * submission even if the replicas have not replayed it yet. The pin is per user, held for {@code window}
+ * after the start of their last write request; the current request's pin is exposed through a thread local
+ * that {@link ReplicaRoutingDataSource} consults. Pins are local to this instance.
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window, long maximumUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(Long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+
+    // bound for the duration of one request
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) PINNED.set(Boolean.TRUE);
+        else PINNED.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+}
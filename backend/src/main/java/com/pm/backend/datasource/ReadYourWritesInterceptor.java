@@ -0,0 +1,40 @@
+package com.pm.backend.datasource;
+
+import com.pm.backend.config.RequestUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Starts a user's read-your-writes window when they send a write, and pins their reads to the primary while the
+ * window is open. The window opens before the write runs, so the response can never race ahead of the pin.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesInterceptor(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = RequestUser.userId(request);
+        if (userId == null) return true;
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            readYourWrites.recordWrite(userId);
+        }
+        ReadYourWrites.pinToPrimary(readYourWrites.wroteRecently(userId));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWrites.pinToPrimary(false);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWrites.pinToPrimary(false);
+    }
+}
@@ -0,0 +1,134 @@
+package com.pm.backend.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read-only side of the connection routing: hands out a connection from one of the replicas, round robin,
+ * skipping replicas that are unreachable, further behind than {@code maxLag}, or whose last lag check is older than
+ * {@code maxLag} (the check itself may be stuck behind other scheduled work). Falls back to the primary when
+ * no replica qualifies or the current request is pinned by {@link ReadYourWrites}.
+ * <p>
+ * Only ever called for read-only transactions: it sits behind a LazyConnectionDataSourceProxy as its read-only
+ * data source, and that proxy fetches the physical connection at the first statement, after the transaction has
+ * been marked read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    // 0 while the replica has replayed everything it received; otherwise the age of the last replayed commit
+    static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE (extract(epoch FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+                   END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadYourWrites.isPinnedToPrimary()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.isUsable(maxLagMillis)) continue;
+                try {
+                    return replica.dataSource().getConnection();
+                } catch (SQLException e) {
+                    // nothing has run on the connection yet, so moving to the next candidate is safe
+                    log.warn("Replica {} unavailable, marking it down: {}", replica.name(), e.getMessage());
+                    replica.markDown();
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // explicit credentials are not something the replica pools were configured with
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /** Measures replication lag on every replica; a replica that cannot be queried is taken out of rotation. */
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                replica.setLagMillis(rs.getLong(1));
+            } catch (SQLException e) {
+                if (replica.lagMillis != Replica.DOWN) {
+                    log.warn("Replica {} failed its lag check: {}", replica.name(), e.getMessage());
+                }
+                replica.markDown();
+            }
+        }
+    }
+
+    public static final class Replica {
+
+        static final long DOWN = Long.MAX_VALUE;
+
+        private final String name;
+        private final DataSource dataSource;
+        // unknown until the first lag check, so a new replica takes no reads before it has been measured
+        private volatile long lagMillis = DOWN;
+        private volatile long checkedAtNanos;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        // lag in milliseconds, or -1 while the replica is down or not yet measured
+        public double lagMillis() {
+            long lag = lagMillis;
+            return lag == DOWN ? -1 : lag;
+        }
+
+        boolean isUsable(long maxLagMillis) {
+            return lagMillis <= maxLagMillis
+                    && System.nanoTime() - checkedAtNanos <= TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+        }
+
+        void markDown() {
+            lagMillis = DOWN;
+        }
+
+        void setLagMillis(long lagMillis) {
+            this.lagMillis = lagMillis;
+            this.checkedAtNanos = System.nanoTime();
+        }
+    }
+}
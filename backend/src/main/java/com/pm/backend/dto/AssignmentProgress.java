@@ -0,0 +1,11 @@
+package com.pm.backend.dto;
+
+// counts by submission status; averageGrade is over the gradeCount submissions that carry a grade, null without any
+public record AssignmentProgress(Long assignmentId,
+                                 long pending,
+                                 long submitted,
+                                 long graded,
+                                 long late,
+                                 long gradeCount,
+                                 Double averageGrade) {
+}
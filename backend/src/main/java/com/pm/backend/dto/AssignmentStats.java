@@ -0,0 +1,17 @@
+package com.pm.backend.dto;
+
+import java.time.LocalDateTime;
+
+// per-assignment gradebook column: completion counts and grade distribution over graded submissions
+public record AssignmentStats(Long assignmentId,
+                              String title,
+                              Integer maxScore,
+                              LocalDateTime dueDate,
+                              long rosterCount,
+                              long submittedCount,
+                              long gradedCount,
+                              Double mean,
+                              Double median,
+                              Integer min,
+                              Integer max) {
+}
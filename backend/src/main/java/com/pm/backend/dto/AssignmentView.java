@@ -0,0 +1,20 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.Assignment;
+
+import java.time.LocalDateTime;
+
+public record AssignmentView(Long id,
+                             String title,
+                             String description,
+                             LocalDateTime dueDate,
+                             Integer maxScore,
+                             Long courseId,
+                             LocalDateTime createdAt) {
+
+    public static AssignmentView from(Assignment assignment) {
+        return new AssignmentView(assignment.getId(), assignment.getTitle(), assignment.getDescription(),
+                assignment.getDueDate(), assignment.getMaxScore(), assignment.getCourse().getId(),
+                assignment.getCreatedAt());
+    }
+}
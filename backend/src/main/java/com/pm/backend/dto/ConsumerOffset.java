@@ -0,0 +1,6 @@
+package com.pm.backend.dto;
+
+import java.time.LocalDateTime;
+
+public record ConsumerOffset(String consumer, long position, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,13 @@
+package com.pm.backend.dto;
+
+// published when a course's assignments or its membership change; submissions are covered by SubmissionEvent
+public record CourseChangedEvent(Long courseId, boolean membershipChanged) {
+
+    public static CourseChangedEvent assignmentsChanged(Long courseId) {
+        return new CourseChangedEvent(courseId, false);
+    }
+
+    public static CourseChangedEvent membershipChanged(Long courseId) {
+        return new CourseChangedEvent(courseId, true);
+    }
+}
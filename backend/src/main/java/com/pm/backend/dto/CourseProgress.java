@@ -0,0 +1,13 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+// course totals plus one entry per assignment that has any submission (missing entries are all zero)
+public record CourseProgress(Long courseId,
+                             long pending,
+                             long submitted,
+                             long graded,
+                             long late,
+                             Double averageGrade,
+                             List<AssignmentProgress> assignments) {
+}
@@ -0,0 +1,28 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.Course;
+import com.pm.backend.entity.UserRole;
+
+import java.time.LocalDateTime;
+
+public record CourseView(Long id,
+                         String title,
+                         String description,
+                         String subject,
+                         String inviteCode,
+                         LocalDateTime createdAt,
+                         UserSummary teacher) {
+
+    // flat constructor used by JPQL "select new" projections
+    public CourseView(Long id, String title, String description, String subject, String inviteCode,
+                      LocalDateTime createdAt,
+                      Long teacherId, String teacherUsername, String teacherFullName, UserRole teacherRole) {
+        this(id, title, description, subject, inviteCode, createdAt,
+                new UserSummary(teacherId, teacherUsername, teacherFullName, teacherRole));
+    }
+
+    public static CourseView from(Course course) {
+        return new CourseView(course.getId(), course.getTitle(), course.getDescription(), course.getSubject(),
+                course.getInviteCode(), course.getCreatedAt(), UserSummary.from(course.getTeacher()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+// one assignment on a student's dashboard together with that student's own submission, if any
+public record DashboardAssignment(Long id,
+                                  String title,
+                                  LocalDateTime dueDate,
+                                  Integer maxScore,
+                                  Long courseId,
+                                  String courseTitle,
+                                  Long submissionId,
+                                  SubmissionStatus status,
+                                  Integer grade,
+                                  LocalDateTime submittedAt) {
+
+    public DashboardAssignment {
+        // no submission row yet
+        if (status == null) {
+            status = SubmissionStatus.PENDING;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.SubmissionStatus;
+
+public record GradeCell(Integer grade, SubmissionStatus status) {
+}
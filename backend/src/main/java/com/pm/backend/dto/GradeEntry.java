@@ -0,0 +1,5 @@
+package com.pm.backend.dto;
+
+// one row of a bulk grading request (JSON array element or CSV line)
+public record GradeEntry(Long submissionId, Integer grade, String feedback) {
+}
@@ -0,0 +1,12 @@
+package com.pm.backend.dto;
+
+public record GradeResult(Long submissionId, boolean success, String error) {
+
+    public static GradeResult ok(Long submissionId) {
+        return new GradeResult(submissionId, true, null);
+    }
+
+    public static GradeResult failed(Long submissionId, String error) {
+        return new GradeResult(submissionId, false, error);
+    }
+}
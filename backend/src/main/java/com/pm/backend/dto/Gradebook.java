@@ -0,0 +1,6 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public record Gradebook(Long courseId, List<AssignmentStats> assignments, List<GradebookRow> students) {
+}
@@ -0,0 +1,11 @@
+package com.pm.backend.dto;
+
+import java.util.Map;
+
+// one student line of the gradebook; grades are keyed by assignment id, missing keys mean no submission
+public record GradebookRow(Long studentId,
+                           String username,
+                           String fullName,
+                           Double average,
+                           Map<Long, GradeCell> grades) {
+}
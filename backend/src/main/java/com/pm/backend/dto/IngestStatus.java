@@ -0,0 +1,15 @@
+package com.pm.backend.dto;
+
+// tracking record for a submission accepted by the async ingestion queue
+public record IngestStatus(String trackingId, State state, Long assignmentId, Long studentId, String error) {
+
+    public enum State {
+        QUEUED,
+        PERSISTED,
+        FAILED
+    }
+
+    public IngestStatus withState(State state, String error) {
+        return new IngestStatus(trackingId, state, assignmentId, studentId, error);
+    }
+}
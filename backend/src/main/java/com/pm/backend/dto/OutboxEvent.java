@@ -0,0 +1,20 @@
+package com.pm.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+// one change from the outbox; position orders the stream, eventId stays the same on redelivery (dedupe key)
+public record OutboxEvent(long position,
+                          long eventId,
+                          String type,
+                          String aggregateType,
+                          long aggregateId,
+                          Long courseId,
+                          @JsonRawValue String payload,
+                          LocalDateTime createdAt) {
+
+    public static final String SUBMISSION_SUBMITTED = "SUBMISSION_SUBMITTED";
+    public static final String SUBMISSION_GRADED = "SUBMISSION_GRADED";
+    public static final String ASSIGNMENT_CREATED = "ASSIGNMENT_CREATED";
+}
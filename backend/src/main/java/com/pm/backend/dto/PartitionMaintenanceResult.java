@@ -0,0 +1,6 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public record PartitionMaintenanceResult(List<String> created, List<String> archived, long millis) {
+}
@@ -0,0 +1,4 @@
+package com.pm.backend.dto;
+
+public record ProgressRepairResult(int courses, int driftedAssignments, long millis) {
+}
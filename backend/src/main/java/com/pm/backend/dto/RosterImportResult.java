@@ -0,0 +1,11 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+// outcome of a roster upload; every distinct username lands in exactly one bucket
+public record RosterImportResult(int requested,
+                                 int enrolled,
+                                 int alreadyEnrolled,
+                                 List<String> unknownUsernames,
+                                 List<String> notStudents) {
+}
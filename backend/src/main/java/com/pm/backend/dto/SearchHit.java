@@ -0,0 +1,17 @@
+package com.pm.backend.dto;
+
+// snippet is plain text with matches wrapped in <mark>...</mark>
+public record SearchHit(Type type,
+                        Long id,
+                        Long courseId,
+                        Long assignmentId,
+                        String title,
+                        String snippet,
+                        double rank) {
+
+    public enum Type {
+        COURSE,
+        ASSIGNMENT,
+        SUBMISSION
+    }
+}
@@ -0,0 +1,7 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+// nextOffset is null on the last page
+public record SearchResults(List<SearchHit> items, Integer nextOffset) {
+}
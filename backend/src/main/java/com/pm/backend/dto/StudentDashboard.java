@@ -0,0 +1,7 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public record StudentDashboard(List<CourseView> courses,
+                               List<DashboardAssignment> assignments) {
+}
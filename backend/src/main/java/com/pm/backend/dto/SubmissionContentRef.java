@@ -0,0 +1,9 @@
+package com.pm.backend.dto;
+
+// where a submission's body lives: a blob hash, or the inline text of a row not yet migrated
+public record SubmissionContentRef(Long submissionId, String hash, Long size, String legacyContent) {
+
+    public boolean inBlobStore() {
+        return hash != null;
+    }
+}
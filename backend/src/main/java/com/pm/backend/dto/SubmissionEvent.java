@@ -0,0 +1,40 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+// published after a submit, grade or deadline sweep commits; pushed to course and assignment SSE subscribers
+public record SubmissionEvent(Type type,
+                              Long submissionId,
+                              Long assignmentId,
+                              Long courseId,
+                              Long studentId,
+                              SubmissionStatus status,
+                              Integer grade,
+                              LocalDateTime occurredAt) {
+
+    public static SubmissionEvent of(Type type, SubmissionView submission, Long courseId) {
+        return new SubmissionEvent(type, submission.id(), submission.assignmentId(), courseId,
+                submission.student().id(), submission.status(), submission.grade(), LocalDateTime.now());
+    }
+
+    public static SubmissionEvent bulkGraded(Long assignmentId, Long courseId) {
+        return new SubmissionEvent(Type.BULK_GRADED, null, assignmentId, courseId, null,
+                SubmissionStatus.GRADED, null, LocalDateTime.now());
+    }
+
+    public static SubmissionEvent closed(Long assignmentId, Long courseId) {
+        return new SubmissionEvent(Type.CLOSED, null, assignmentId, courseId, null,
+                SubmissionStatus.PENDING, null, LocalDateTime.now());
+    }
+
+    public enum Type {
+        SUBMITTED,
+        GRADED,
+        // one event per bulk grading call instead of one per row; clients re-read the list
+        BULK_GRADED,
+        // the deadline sweep flagged late submissions or recorded missing ones; clients re-read the list
+        CLOSED
+    }
+}
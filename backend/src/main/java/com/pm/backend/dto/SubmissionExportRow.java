@@ -0,0 +1,22 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+// one (assignment, student) pair of an export; the submission fields are null where nothing was handed in
+public record SubmissionExportRow(long courseId,
+                                  long assignmentId,
+                                  String assignmentTitle,
+                                  LocalDateTime dueDate,
+                                  Integer maxScore,
+                                  long studentId,
+                                  String username,
+                                  String fullName,
+                                  Long submissionId,
+                                  SubmissionStatus status,
+                                  Integer grade,
+                                  Boolean late,
+                                  LocalDateTime submittedAt,
+                                  String feedback) {
+}
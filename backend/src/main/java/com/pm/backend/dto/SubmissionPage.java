@@ -0,0 +1,7 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+// one keyset page; nextCursor is the id to pass as ?cursor= for the following page, null on the last page
+public record SubmissionPage(List<SubmissionView> items, Long nextCursor) {
+}
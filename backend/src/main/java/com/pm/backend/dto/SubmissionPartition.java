@@ -0,0 +1,5 @@
+package com.pm.backend.dto;
+
+// fromAssignmentId is null for the partition that starts at MINVALUE (submissions_legacy)
+public record SubmissionPartition(String name, Long fromAssignmentId, long toAssignmentId, long estimatedRows) {
+}
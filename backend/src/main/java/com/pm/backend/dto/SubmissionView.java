@@ -0,0 +1,35 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.Submission;
+import com.pm.backend.entity.SubmissionStatus;
+import com.pm.backend.entity.UserRole;
+
+import java.time.LocalDateTime;
+
+// preview is the start of the body; the full text is served by GET /api/submissions/{id}/content
+public record SubmissionView(Long id,
+                             String preview,
+                             Long contentSize,
+                             Integer grade,
+                             String feedback,
+                             SubmissionStatus status,
+                             boolean late,
+                             LocalDateTime submittedAt,
+                             Long assignmentId,
+                             UserSummary student) {
+
+    // flat constructor used by JPQL "select new" projections
+    public SubmissionView(Long id, String preview, Long contentSize, Integer grade, String feedback,
+                          SubmissionStatus status, boolean late, LocalDateTime submittedAt, Long assignmentId,
+                          Long studentId, String studentUsername, String studentFullName, UserRole studentRole) {
+        this(id, preview, contentSize, grade, feedback, status, late, submittedAt, assignmentId,
+                new UserSummary(studentId, studentUsername, studentFullName, studentRole));
+    }
+
+    public static SubmissionView from(Submission submission) {
+        return new SubmissionView(submission.getId(), submission.getContentPreview(), submission.getContentSize(),
+                submission.getGrade(), submission.getFeedback(), submission.getStatus(), submission.isLate(),
+                submission.getSubmittedAt(),
+                submission.getAssignment().getId(), UserSummary.from(submission.getStudent()));
+    }
+}
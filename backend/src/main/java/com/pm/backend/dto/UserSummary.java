@@ -0,0 +1,12 @@
+package com.pm.backend.dto;
+
+import com.pm.backend.entity.User;
+import com.pm.backend.entity.UserRole;
+
+// public part of a user, embedded in course and submission views instead of the whole User row
+public record UserSummary(Long id, String username, String fullName, UserRole role) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getFullName(), user.getRole());
+    }
+}
@@ -15,7 +15,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments",
+        indexes = @Index(name = "idx_assignments_course_due_date", columnList = "course_id, due_date"))
 public class Assignment {
 
     @Id
@@ -46,6 +47,11 @@ public class Assignment {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // set by DeadlineSweeper once late work is flagged and missing work recorded for this due date
+    @JsonIgnore
+    @Column(name = "swept_at", insertable = false, updatable = false)
+    private LocalDateTime sweptAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -14,7 +14,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "courses")
+@Table(name = "courses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_courses_invite_code", columnNames = "invite_code"))
 public class Course {
 
     @Id
@@ -29,11 +30,10 @@ public class Course {
 
     private String subject; // e.g., "Math", "History"
 
-
+    @Column(name = "invite_code")
     private String inviteCode;
 
-
-    @ManyToOne(fetch = FetchType.EAGER) // foreign key
+    @ManyToOne(fetch = FetchType.LAZY) // foreign key
     @JoinColumn(name = "teacher_id", nullable = false)
     private User teacher;
 
@@ -1,5 +1,6 @@
 package com.pm.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -14,16 +15,34 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_submissions_assignment_student", columnNames = {"assignment_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_submissions_id", columnList = "id"),
+        @Index(name = "idx_submissions_assignment_status", columnList = "assignment_id, status, id"),
+        @Index(name = "idx_submissions_student_id", columnList = "student_id")
+})
 public class Submission {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // body stored inline before the blob store existed; LegacyContentMigrator empties it, new writes leave it null
+    @JsonIgnore
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // the body itself lives in the BlobStore under this SHA-256
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_size")
+    private Long contentSize;
+
+    @Column(name = "content_preview", length = 300)
+    private String contentPreview;
+
     private Integer grade;
 
     @Column(columnDefinition = "TEXT")
@@ -32,12 +51,16 @@ public class Submission {
     @Enumerated(EnumType.STRING)
     private SubmissionStatus status;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // submitted after the assignment's due date; written by the submit upsert, back-filled by DeadlineSweeper
+    @Column(nullable = false, columnDefinition = "boolean not null default false")
+    private boolean late;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignment_id", nullable = false)
     @JsonIgnoreProperties("submissions")
     private Assignment assignment;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     @JsonIgnoreProperties({"enrolledCourses", "teachingCourses"})
     private User student;
@@ -45,6 +68,11 @@ public class Submission {
     @Column(name = "submitted_at")
     private LocalDateTime submittedAt;
 
+    // Idempotency-Key header of the request that last wrote the content
+    @JsonIgnore
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
     @PrePersist
     protected void onCreate() {
         if (status == null) status = SubmissionStatus.PENDING;
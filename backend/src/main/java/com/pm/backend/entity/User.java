@@ -47,7 +47,11 @@ public class User {
     @JoinTable(
             name = "enrollments",
             joinColumns = @JoinColumn(name = "student_id"),
-            inverseJoinColumns = @JoinColumn(name = "course_id")
+            inverseJoinColumns = @JoinColumn(name = "course_id"),
+            // lets set-based inserts skip existing rows with ON CONFLICT DO NOTHING; the second index serves roster lookups
+            uniqueConstraints = @UniqueConstraint(name = "uk_enrollments_student_course",
+                    columnNames = {"student_id", "course_id"}),
+            indexes = @Index(name = "idx_enrollments_course_student", columnList = "course_id, student_id")
     )
     @JsonIgnore //
     private List<Course> enrolledCourses;
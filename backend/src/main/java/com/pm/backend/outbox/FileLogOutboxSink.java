@@ -0,0 +1,57 @@
+package com.pm.backend.outbox;
+
+import com.pm.backend.dto.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local newline-delimited JSON file, for development and for tailing the stream
+ * ({@code tail -f data/outbox/events.ndjson}). Each batch is written and fsynced before the offset moves on.
+ */
+@Component
+@ConditionalOnProperty(name = "lms.outbox.file-log.enabled", havingValue = "true", matchIfMissing = true)
+public class FileLogOutboxSink implements OutboxSink {
+
+    private final JsonMapper jsonMapper;
+    private final Path file;
+
+    public FileLogOutboxSink(JsonMapper jsonMapper,
+                             @Value("${lms.outbox.file-log.path:data/outbox/events.ndjson}") Path file) {
+        this.jsonMapper = jsonMapper;
+        this.file = file.toAbsolutePath();
+    }
+
+    @Override
+    public String name() {
+        return "file-log";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+        for (OutboxEvent event : events) {
+            lines.write(jsonMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
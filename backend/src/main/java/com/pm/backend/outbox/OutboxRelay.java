@@ -0,0 +1,130 @@
+package com.pm.backend.outbox;
+
+import com.pm.backend.dto.OutboxEvent;
+import com.pm.backend.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves outbox events to the registered {@link OutboxSink}s. Each tick first gives newly committed events their
+ * stream positions, then hands every sink the events after its offset in batches of batch-size.
+ * <p>
+ * A batch is published while the sink's offset row is locked (FOR UPDATE SKIP LOCKED) and the offset is advanced
+ * in the same transaction, so instances never deliver to one consumer concurrently, and a failed publish or lost
+ * commit leaves the offset where it was: the batch is sent again on the next tick (at-least-once, in order).
+ * Sinks should therefore be quick; a slow one holds a pooled connection while it publishes. Events wait for the
+ * oldest running transaction to finish before they are sequenced, so a long transaction delays the stream.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxRun;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ObjectProvider<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${lms.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${lms.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${lms.outbox.relay.max-run:5s}") Duration maxRun,
+                       @Value("${lms.outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxRun = maxRun;
+        this.retention = retention;
+    }
+
+    // a new sink starts at position 0, i.e. with everything still retained
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerConsumers() {
+        sinks.forEach(sink -> outboxRepository.registerConsumer(sink.name()));
+    }
+
+    // runs for at most max-run, then yields the scheduler until the next tick
+    @Scheduled(fixedDelayString = "${lms.outbox.relay.interval:500ms}")
+    public void relay() {
+        if (!enabled) return;
+        long deadline = System.nanoTime() + maxRun.toNanos();
+        while (sequenceBatch() == batchSize && System.nanoTime() < deadline) {
+            // keep going while whole batches come back
+        }
+        for (OutboxSink sink : sinks) {
+            try {
+                while (deliverBatch(sink) == batchSize && System.nanoTime() < deadline) {
+                    // caught up once a short batch is delivered
+                }
+            } catch (RuntimeException e) {
+                counter("lms.outbox.delivery.failures", sink).increment();
+                log.warn("Outbox delivery to {} failed, retrying from its offset on the next tick", sink.name(), e);
+            }
+        }
+    }
+
+    // committed rows past the retention window that every sink has already received
+    @Scheduled(initialDelayString = "${lms.outbox.prune-interval:1h}", fixedDelayString = "${lms.outbox.prune-interval:1h}")
+    public void prune() {
+        if (!enabled) return;
+        int pruned = outboxRepository.prune(LocalDateTime.now().minus(retention),
+                sinks.stream().map(OutboxSink::name).toList());
+        if (pruned > 0) {
+            log.info("Pruned {} outbox events older than {}", pruned, retention);
+        }
+    }
+
+    int sequenceBatch() {
+        Integer sequenced = transactionTemplate.execute(tx -> outboxRepository.sequence(batchSize));
+        return sequenced == null ? 0 : sequenced;
+    }
+
+    int deliverBatch(OutboxSink sink) {
+        Integer delivered = transactionTemplate.execute(tx -> {
+            Optional<Long> offset = outboxRepository.lockOffset(sink.name());
+            if (offset.isEmpty()) return 0; // another instance is delivering to this sink
+
+            List<OutboxEvent> events = outboxRepository.findEvents(offset.get(), batchSize);
+            if (events.isEmpty()) return 0;
+            try {
+                sink.publish(events);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            outboxRepository.saveOffset(sink.name(), events.getLast().position());
+            return events.size();
+        });
+        if (delivered == null || delivered == 0) return 0;
+        counter("lms.outbox.delivered", sink).increment(delivered);
+        return delivered;
+    }
+
+    private Counter counter(String name, OutboxSink sink) {
+        return Counter.builder(name).tag("consumer", sink.name()).register(meterRegistry);
+    }
+}
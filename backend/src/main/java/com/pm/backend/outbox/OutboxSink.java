@@ -0,0 +1,21 @@
+package com.pm.backend.outbox;
+
+import com.pm.backend.dto.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A destination the relay pushes outbox events to (message broker, file log, ...). Each sink is a consumer with
+ * its own offset: it receives every event in position order, in batches, at least once. A batch is delivered
+ * again if {@link #publish} throws or the offset update after it does not commit, so receivers dedupe on
+ * {@link OutboxEvent#eventId()}. Register an implementation as a bean to add a consumer.
+ */
+public interface OutboxSink {
+
+    // consumer name the offset is stored under; renaming it starts the consumer over from the beginning
+    String name();
+
+    // must return only once the batch is durably handed over
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -1,9 +1,48 @@
 package com.pm.backend.repository;
 
+import com.pm.backend.dto.AssignmentView;
+import com.pm.backend.dto.DashboardAssignment;
 import com.pm.backend.entity.Assignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findByCourseId(Long courseId);
-}
\ No newline at end of file
+
+    @Query("""
+            select new com.pm.backend.dto.AssignmentView(a.id, a.title, a.description, a.dueDate, a.maxScore,
+                a.course.id, a.createdAt)
+            from Assignment a
+            where a.course.id = :courseId
+            order by a.id
+            """)
+    List<AssignmentView> findViewsByCourseId(@Param("courseId") Long courseId);
+
+    @Query("""
+            select new com.pm.backend.dto.AssignmentView(a.id, a.title, a.description, a.dueDate, a.maxScore,
+                a.course.id, a.createdAt)
+            from Assignment a
+            where a.id = :assignmentId
+            """)
+    Optional<AssignmentView> findViewById(@Param("assignmentId") Long assignmentId);
+
+    // every assignment of the student's courses due on or after :dueFrom (undated ones included), with the
+    // student's own submission left-joined in: one select however many courses and assignments there are
+    @Query("""
+            select new com.pm.backend.dto.DashboardAssignment(a.id, a.title, a.dueDate, a.maxScore,
+                c.id, c.title, s.id, s.status, s.grade, s.submittedAt)
+            from User u join u.enrolledCourses c
+            join Assignment a on a.course = c
+            left join Submission s on s.assignment = a and s.student = u
+            where u.id = :studentId
+              and (a.dueDate is null or a.dueDate >= :dueFrom)
+            order by a.dueDate nulls last, a.id
+            """)
+    List<DashboardAssignment> findDashboardAssignments(@Param("studentId") Long studentId,
+                                                       @Param("dueFrom") LocalDateTime dueFrom);
+}
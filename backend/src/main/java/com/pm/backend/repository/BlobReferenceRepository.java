@@ -0,0 +1,59 @@
+package com.pm.backend.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Finds blob-store hashes no submission refers to, live or archived. Candidates are staged in a temporary table
+ * and anti-joined in one statement, so a collection run reads each submissions table once however many blobs
+ * it checks. Must be called within one transaction: the staging table is dropped on commit.
+ */
+@Repository
+public class BlobReferenceRepository {
+
+    private static final String CREATE_SQL = """
+            CREATE TEMPORARY TABLE IF NOT EXISTS blob_gc_candidates (hash varchar(64) PRIMARY KEY) ON COMMIT DROP
+            """;
+
+    private static final String STAGE_SQL = """
+            INSERT INTO blob_gc_candidates (hash)
+            SELECT unnest(CAST(:hashes AS text[]))
+            ON CONFLICT DO NOTHING
+            """;
+
+    // partitions moved out by SubmissionPartitionJob still point at their bodies
+    private static final String ARCHIVED_SQL = """
+            SELECT quote_ident(schemaname) || '.' || quote_ident(tablename)
+            FROM pg_tables
+            WHERE schemaname = 'lms_archive'
+              AND tablename ~ '^submissions_(legacy|from_[0-9]+)$'
+            ORDER BY tablename
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BlobReferenceRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void stageCandidates(List<String> hashes) {
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_SQL);
+        jdbcTemplate.update(STAGE_SQL, new MapSqlParameterSource("hashes", hashes.toArray(String[]::new)));
+    }
+
+    public List<String> findUnreferencedCandidates() {
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_SQL);
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE blob_gc_candidates");
+        String archived = jdbcTemplate.getJdbcTemplate().queryForList(ARCHIVED_SQL, String.class).stream()
+                .map(table -> "\n  AND NOT EXISTS (SELECT 1 FROM " + table + " a WHERE a.content_hash = c.hash)")
+                .collect(Collectors.joining());
+        return jdbcTemplate.getJdbcTemplate().queryForList("""
+                SELECT c.hash FROM blob_gc_candidates c
+                WHERE NOT EXISTS (SELECT 1 FROM submissions s WHERE s.content_hash = c.hash)""" + archived,
+                String.class);
+    }
+}
@@ -1,10 +1,54 @@
 package com.pm.backend.repository;
 
+import com.pm.backend.dto.CourseView;
 import com.pm.backend.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
     List<Course> findByTeacherId(Long teacherId);
-}
\ No newline at end of file
+
+    // read model: one select per call, teacher columns joined in instead of loaded per course
+
+    @Query("""
+            select new com.pm.backend.dto.CourseView(c.id, c.title, c.description, c.subject, c.inviteCode,
+                c.createdAt, t.id, t.username, t.fullName, t.role)
+            from Course c join c.teacher t
+            where t.id = :teacherId
+            order by c.id
+            """)
+    List<CourseView> findViewsByTeacherId(@Param("teacherId") Long teacherId);
+
+    @Query("""
+            select new com.pm.backend.dto.CourseView(c.id, c.title, c.description, c.subject, c.inviteCode,
+                c.createdAt, t.id, t.username, t.fullName, t.role)
+            from User u join u.enrolledCourses c join c.teacher t
+            where u.id = :studentId
+            order by c.id
+            """)
+    List<CourseView> findViewsByStudentId(@Param("studentId") Long studentId);
+
+    @Query("""
+            select new com.pm.backend.dto.CourseView(c.id, c.title, c.description, c.subject, c.inviteCode,
+                c.createdAt, t.id, t.username, t.fullName, t.role)
+            from Course c join c.teacher t
+            where c.id = :courseId
+            """)
+    Optional<CourseView> findViewById(@Param("courseId") Long courseId);
+
+    // served by the uk_courses_invite_code unique index
+    @Query("""
+            select new com.pm.backend.dto.CourseView(c.id, c.title, c.description, c.subject, c.inviteCode,
+                c.createdAt, t.id, t.username, t.fullName, t.role)
+            from Course c join c.teacher t
+            where c.inviteCode = :inviteCode
+            """)
+    Optional<CourseView> findViewByInviteCode(@Param("inviteCode") String inviteCode);
+
+    boolean existsByInviteCode(String inviteCode);
+}
@@ -0,0 +1,82 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.RosterImportResult;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based writes to the {@code enrollments} join table. Going through {@code User.enrolledCourses} would load
+ * and rewrite the whole collection per student; these statements insert the missing rows only and rely on
+ * {@code uk_enrollments_student_course} to skip the ones that already exist.
+ */
+@Repository
+public class EnrollmentRepository {
+
+    private static final String ENROLL_SQL = """
+            INSERT INTO enrollments (student_id, course_id)
+            VALUES (:studentId, :courseId)
+            ON CONFLICT DO NOTHING
+            """;
+
+    // one round trip for the whole roster: resolve usernames, insert the students, and report what happened
+    private static final String IMPORT_SQL = """
+            WITH requested AS (
+                SELECT DISTINCT unnest(CAST(:usernames AS text[])) AS username
+            ),
+            matched AS (
+                SELECT u.id, u.username, u.role FROM users u JOIN requested r ON r.username = u.username
+            ),
+            inserted AS (
+                INSERT INTO enrollments (student_id, course_id)
+                SELECT m.id, :courseId FROM matched m WHERE m.role = 'STUDENT'
+                ON CONFLICT DO NOTHING
+                RETURNING student_id
+            )
+            SELECT r.username, m.role, i.student_id IS NOT NULL AS inserted
+            FROM requested r
+            LEFT JOIN matched m ON m.username = r.username
+            LEFT JOIN inserted i ON i.student_id = m.id
+            ORDER BY r.username
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public EnrollmentRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // false when the student was already enrolled
+    public boolean enroll(Long studentId, Long courseId) {
+        return jdbcTemplate.update(ENROLL_SQL, new MapSqlParameterSource()
+                .addValue("studentId", studentId)
+                .addValue("courseId", courseId)) > 0;
+    }
+
+    public RosterImportResult enrollByUsernames(Long courseId, List<String> usernames) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("usernames", usernames.toArray(String[]::new));
+
+        List<String> unknown = new ArrayList<>();
+        List<String> notStudents = new ArrayList<>();
+        int[] counts = new int[3]; // requested, enrolled, already enrolled
+        jdbcTemplate.query(IMPORT_SQL, params, rs -> {
+            counts[0]++;
+            String role = rs.getString("role");
+            if (role == null) {
+                unknown.add(rs.getString("username"));
+            } else if (!"STUDENT".equals(role)) {
+                notStudents.add(rs.getString("username"));
+            } else if (rs.getBoolean("inserted")) {
+                counts[1]++;
+            } else {
+                counts[2]++;
+            }
+        });
+        return new RosterImportResult(counts[0], counts[1], counts[2], unknown, notStudents);
+    }
+}
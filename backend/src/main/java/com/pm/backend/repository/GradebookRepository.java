@@ -0,0 +1,156 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.AssignmentStats;
+import com.pm.backend.dto.GradeCell;
+import com.pm.backend.dto.GradebookRow;
+import com.pm.backend.entity.SubmissionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Gradebook aggregates computed in PostgreSQL. Nothing here loads Submission entities: one grouped query
+ * produces the per-assignment statistics and one ordered query produces the student x assignment matrix.
+ */
+@Repository
+public class GradebookRepository {
+
+    // the roster is everyone enrolled plus anyone who submitted without being enrolled
+    private static final String ROSTER = """
+            roster AS (
+                SELECT e.student_id FROM enrollments e WHERE e.course_id = :courseId
+                UNION
+                SELECT s.student_id FROM submissions s
+                JOIN assignments a ON a.id = s.assignment_id
+                WHERE a.course_id = :courseId
+            )
+            """;
+
+    private static final String STATS_SQL = "WITH " + ROSTER + """
+            SELECT a.id, a.title, a.max_score, a.due_date,
+                   (SELECT count(*) FROM roster) AS roster_count,
+                   count(s.id) FILTER (WHERE s.status IN ('SUBMITTED', 'GRADED')) AS submitted_count,
+                   count(s.grade) AS graded_count,
+                   avg(s.grade)::float8 AS mean,
+                   percentile_cont(0.5) WITHIN GROUP (ORDER BY s.grade) AS median,
+                   min(s.grade) AS min_grade,
+                   max(s.grade) AS max_grade
+            FROM assignments a
+            LEFT JOIN submissions s ON s.assignment_id = a.id
+            WHERE a.course_id = :courseId
+            GROUP BY a.id
+            ORDER BY a.due_date NULLS LAST, a.id
+            """;
+
+    // one row per (student, submission); the window average saves a second pass per student
+    private static final String MATRIX_SQL = "WITH " + ROSTER + """
+            SELECT u.id AS student_id, u.username, u.full_name,
+                   s.assignment_id, s.grade, s.status,
+                   avg(s.grade) OVER (PARTITION BY u.id)::float8 AS average
+            FROM roster r
+            JOIN users u ON u.id = r.student_id
+            LEFT JOIN (
+                SELECT s.student_id, s.assignment_id, s.grade, s.status
+                FROM submissions s
+                JOIN assignments a ON a.id = s.assignment_id
+                WHERE a.course_id = :courseId
+            ) s ON s.student_id = u.id
+            ORDER BY u.full_name, u.id, s.assignment_id
+            """;
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public GradebookRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    public List<AssignmentStats> findAssignmentStats(Long courseId) {
+        return jdbcTemplate.query(STATS_SQL, new MapSqlParameterSource("courseId", courseId), (rs, i) ->
+                new AssignmentStats(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        rs.getObject("max_score", Integer.class),
+                        toLocalDateTime(rs.getTimestamp("due_date")),
+                        rs.getLong("roster_count"),
+                        rs.getLong("submitted_count"),
+                        rs.getLong("graded_count"),
+                        rs.getObject("mean", Double.class),
+                        rs.getObject("median", Double.class),
+                        rs.getObject("min_grade", Integer.class),
+                        rs.getObject("max_grade", Integer.class)));
+    }
+
+    /**
+     * Walks the matrix with a server-side cursor and hands each completed student row to {@code sink},
+     * so memory stays bounded by one student regardless of roster size. Must run inside a transaction,
+     * otherwise the PostgreSQL driver ignores the fetch size and buffers the whole result.
+     */
+    public void streamRows(Long courseId, Consumer<GradebookRow> sink) {
+        RowAssembler assembler = new RowAssembler(sink);
+        streamingJdbcTemplate.query(MATRIX_SQL, new MapSqlParameterSource("courseId", courseId), assembler);
+        assembler.finish();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp ts) {
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+
+    // folds consecutive rows of the same student into one GradebookRow
+    private static final class RowAssembler implements RowCallbackHandler {
+
+        private final Consumer<GradebookRow> sink;
+        private Long studentId;
+        private String username;
+        private String fullName;
+        private Double average;
+        private Map<Long, GradeCell> grades;
+
+        private RowAssembler(Consumer<GradebookRow> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("student_id");
+            if (studentId == null || studentId != id) {
+                finish();
+                studentId = id;
+                username = rs.getString("username");
+                fullName = rs.getString("full_name");
+                average = rs.getObject("average", Double.class);
+                grades = new LinkedHashMap<>();
+            }
+            long assignmentId = rs.getLong("assignment_id");
+            if (!rs.wasNull()) {
+                String status = rs.getString("status");
+                grades.put(assignmentId, new GradeCell(rs.getObject("grade", Integer.class),
+                        status == null ? null : SubmissionStatus.valueOf(status)));
+            }
+        }
+
+        void finish() {
+            if (studentId != null) {
+                sink.accept(new GradebookRow(studentId, username, fullName, average, grades));
+                studentId = null;
+            }
+        }
+    }
+}
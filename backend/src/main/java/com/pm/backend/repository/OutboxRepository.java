@@ -0,0 +1,196 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.ConsumerOffset;
+import com.pm.backend.dto.OutboxEvent;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The outbox_events table and its consumer offsets.
+ * <p>
+ * Events are copied from the rows they describe by INSERT ... SELECT inside the writing transaction, so an event
+ * exists exactly when its change committed. They get their stream position later, from {@link #sequence}: ids come
+ * from a sequence and are handed out before commit, so a reader going by id could pass a row whose transaction
+ * commits afterwards with a smaller id and never see it. Positions are only given to rows of transactions older
+ * than the oldest one still running (txid below the snapshot xmin), in (txid, id) order, so nothing can later
+ * appear behind a position a consumer has already passed.
+ */
+@Repository
+public class OutboxRepository {
+
+    // distinguishes the sequencer's advisory lock from any other in the database
+    private static final long SEQUENCER_LOCK = 0x6c6d735f6f7574L;
+
+    private static final String SUBMISSION_EVENT_SELECT = """
+            SELECT :type, 'SUBMISSION', s.id, a.course_id,
+                   jsonb_build_object('submissionId', s.id, 'assignmentId', s.assignment_id, 'courseId', a.course_id,
+                                      'studentId', s.student_id, 'status', s.status, 'grade', s.grade,
+                                      'feedback', s.feedback, 'late', s.late, 'submittedAt', s.submitted_at)
+            FROM submissions s
+            JOIN assignments a ON a.id = s.assignment_id
+            """;
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO outbox_events (event_type, aggregate_type, aggregate_id, course_id, payload)
+            """;
+
+    private static final String RECORD_SUBMISSIONS_SQL = INSERT_EVENT + SUBMISSION_EVENT_SELECT + """
+            WHERE s.id = ANY(CAST(:ids AS bigint[]))
+            ORDER BY s.id
+            """;
+
+    private static final String RECORD_SUBMISSIONS_BY_STUDENT_SQL = INSERT_EVENT + SUBMISSION_EVENT_SELECT + """
+            JOIN unnest(CAST(:assignmentIds AS bigint[]), CAST(:studentIds AS bigint[])) AS k(assignment_id, student_id)
+              ON k.assignment_id = s.assignment_id AND k.student_id = s.student_id
+            ORDER BY s.id
+            """;
+
+    private static final String RECORD_ASSIGNMENT_SQL = INSERT_EVENT + """
+            SELECT :type, 'ASSIGNMENT', a.id, a.course_id,
+                   jsonb_build_object('assignmentId', a.id, 'courseId', a.course_id, 'title', a.title,
+                                      'dueDate', a.due_date, 'maxScore', a.max_score)
+            FROM assignments a
+            WHERE a.id = :id
+            """;
+
+    private static final String UNSEQUENCED_SQL = """
+            SELECT id FROM outbox_events
+            WHERE position IS NULL AND txid < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY txid, id
+            LIMIT :limit
+            """;
+
+    private static final String ASSIGN_POSITIONS_SQL = """
+            UPDATE outbox_events o SET position = t.position
+            FROM unnest(CAST(:ids AS bigint[]), CAST(:positions AS bigint[])) AS t(id, position)
+            WHERE o.id = t.id
+            """;
+
+    private static final String EVENTS_SQL = """
+            SELECT position, id, event_type, aggregate_type, aggregate_id, course_id, payload::text AS payload,
+                   created_at
+            FROM outbox_events
+            WHERE position > :after
+            ORDER BY position
+            LIMIT :limit
+            """;
+
+    // keeps everything a relay consumer has not been given yet, however old
+    private static final String PRUNE_SQL = """
+            DELETE FROM outbox_events
+            WHERE position IS NOT NULL
+              AND created_at < :before
+              AND NOT EXISTS (SELECT 1 FROM outbox_consumer_offsets c
+                              WHERE c.consumer = ANY(CAST(:consumers AS text[]))
+                                AND c.position < outbox_events.position)
+            """;
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("position"),
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getString("aggregate_type"),
+            rs.getLong("aggregate_id"),
+            rs.getObject("course_id", Long.class),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class));
+
+    private static final RowMapper<ConsumerOffset> OFFSET_MAPPER = (rs, rowNum) -> new ConsumerOffset(
+            rs.getString("consumer"),
+            rs.getLong("position"),
+            rs.getObject("updated_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int recordSubmissions(String type, Collection<Long> submissionIds) {
+        return jdbcTemplate.update(RECORD_SUBMISSIONS_SQL, new MapSqlParameterSource()
+                .addValue("type", type)
+                .addValue("ids", submissionIds.toArray(Long[]::new)));
+    }
+
+    // for writers that know (assignment, student) but not the row id
+    public int recordSubmissions(String type, Long[] assignmentIds, Long[] studentIds) {
+        return jdbcTemplate.update(RECORD_SUBMISSIONS_BY_STUDENT_SQL, new MapSqlParameterSource()
+                .addValue("type", type)
+                .addValue("assignmentIds", assignmentIds)
+                .addValue("studentIds", studentIds));
+    }
+
+    public int recordAssignment(String type, Long assignmentId) {
+        return jdbcTemplate.update(RECORD_ASSIGNMENT_SQL, new MapSqlParameterSource()
+                .addValue("type", type)
+                .addValue("id", assignmentId));
+    }
+
+    // gives up to limit committed events their positions; call inside a transaction. Returns -1 when another
+    // instance holds the sequencer lock, otherwise the number of events sequenced.
+    public int sequence(int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lock", SEQUENCER_LOCK)
+                .addValue("limit", limit);
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:lock)", params, Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) return -1;
+
+        List<Long> ids = jdbcTemplate.queryForList(UNSEQUENCED_SQL, params, Long.class);
+        if (ids.isEmpty()) return 0;
+        // the lock makes this session the only caller, so the values come out ascending
+        List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT nextval('outbox_position_seq') FROM generate_series(1, :count) ORDER BY 1",
+                new MapSqlParameterSource("count", ids.size()), Long.class);
+        jdbcTemplate.update(ASSIGN_POSITIONS_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids.toArray(Long[]::new))
+                .addValue("positions", positions.toArray(Long[]::new)));
+        return ids.size();
+    }
+
+    public List<OutboxEvent> findEvents(long afterPosition, int limit) {
+        return jdbcTemplate.query(EVENTS_SQL, new MapSqlParameterSource()
+                .addValue("after", afterPosition)
+                .addValue("limit", limit), EVENT_MAPPER);
+    }
+
+    public void registerConsumer(String consumer) {
+        jdbcTemplate.update("INSERT INTO outbox_consumer_offsets (consumer) VALUES (:consumer) ON CONFLICT DO NOTHING",
+                new MapSqlParameterSource("consumer", consumer));
+    }
+
+    // locks the consumer's offset row for the rest of the transaction; empty if another instance holds it
+    public Optional<Long> lockOffset(String consumer) {
+        return jdbcTemplate.queryForList("""
+                SELECT position FROM outbox_consumer_offsets WHERE consumer = :consumer
+                FOR UPDATE SKIP LOCKED
+                """, new MapSqlParameterSource("consumer", consumer), Long.class).stream().findFirst();
+    }
+
+    public void saveOffset(String consumer, long position) {
+        jdbcTemplate.update("""
+                INSERT INTO outbox_consumer_offsets (consumer, position, updated_at)
+                VALUES (:consumer, :position, now())
+                ON CONFLICT (consumer) DO UPDATE SET position = EXCLUDED.position, updated_at = EXCLUDED.updated_at
+                """, new MapSqlParameterSource()
+                .addValue("consumer", consumer)
+                .addValue("position", position));
+    }
+
+    public List<ConsumerOffset> findOffsets() {
+        return jdbcTemplate.query("SELECT consumer, position, updated_at FROM outbox_consumer_offsets ORDER BY consumer",
+                OFFSET_MAPPER);
+    }
+
+    public int prune(LocalDateTime before, Collection<String> consumers) {
+        return jdbcTemplate.update(PRUNE_SQL, new MapSqlParameterSource()
+                .addValue("before", before)
+                .addValue("consumers", consumers.toArray(String[]::new)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.AssignmentProgress;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reads and repairs assignment_progress, the striped counters the submissions triggers maintain (see db/migration).
+ */
+@Repository
+public class ProgressRepository {
+
+    // one primary-key range scan: the stripes of every assignment of the course
+    private static final String COURSE_SQL = """
+            SELECT assignment_id, sum(pending) AS pending, sum(submitted) AS submitted, sum(graded) AS graded,
+                   sum(late) AS late, sum(grade_sum) AS grade_sum, sum(grade_count) AS grade_count
+            FROM assignment_progress
+            WHERE course_id = :courseId
+            GROUP BY assignment_id
+            ORDER BY assignment_id
+            """;
+
+    // waits for writers that are adding to these counters right now; they cannot add more until we commit.
+    // Locks in primary-key order, the order in which the deadline sweep's multi-assignment insert reaches them too,
+    // so the two cannot each hold a row the other is waiting for
+    private static final String LOCK_SQL = """
+            SELECT 1 FROM assignment_progress WHERE course_id = ANY(CAST(:ids AS bigint[]))
+            ORDER BY course_id, assignment_id, stripe
+            FOR UPDATE
+            """;
+
+    // recount from submissions and add the difference to stripe 0. Counted and recounted in one snapshot, taken
+    // after LOCK_SQL: a writer still in flight is in neither, and adds its own delta once it commits
+    private static final String REPAIR_SQL = """
+            WITH truth AS (
+                SELECT a.course_id, a.id AS assignment_id,
+                       count(*) FILTER (WHERE s.status = 'PENDING') AS pending,
+                       count(*) FILTER (WHERE s.status = 'SUBMITTED') AS submitted,
+                       count(*) FILTER (WHERE s.status = 'GRADED') AS graded,
+                       count(*) FILTER (WHERE s.late) AS late,
+                       coalesce(sum(s.grade), 0) AS grade_sum,
+                       count(s.grade) AS grade_count
+                FROM assignments a
+                JOIN submissions s ON s.assignment_id = a.id
+                WHERE a.course_id = ANY(CAST(:ids AS bigint[]))
+                GROUP BY a.course_id, a.id
+            ), counted AS (
+                SELECT course_id, assignment_id, sum(pending) AS pending, sum(submitted) AS submitted,
+                       sum(graded) AS graded, sum(late) AS late, sum(grade_sum) AS grade_sum,
+                       sum(grade_count) AS grade_count
+                FROM assignment_progress
+                WHERE course_id = ANY(CAST(:ids AS bigint[]))
+                GROUP BY course_id, assignment_id
+            ), drift AS (
+                SELECT course_id, assignment_id,
+                       coalesce(t.pending, 0) - coalesce(c.pending, 0) AS pending,
+                       coalesce(t.submitted, 0) - coalesce(c.submitted, 0) AS submitted,
+                       coalesce(t.graded, 0) - coalesce(c.graded, 0) AS graded,
+                       coalesce(t.late, 0) - coalesce(c.late, 0) AS late,
+                       coalesce(t.grade_sum, 0) - coalesce(c.grade_sum, 0) AS grade_sum,
+                       coalesce(t.grade_count, 0) - coalesce(c.grade_count, 0) AS grade_count
+                FROM truth t
+                FULL JOIN counted c USING (course_id, assignment_id)
+            )
+            INSERT INTO assignment_progress AS p
+                   (course_id, assignment_id, stripe, pending, submitted, graded, late, grade_sum, grade_count)
+            SELECT course_id, assignment_id, 0, pending, submitted, graded, late, grade_sum, grade_count
+            FROM drift
+            WHERE pending <> 0 OR submitted <> 0 OR graded <> 0 OR late <> 0 OR grade_sum <> 0 OR grade_count <> 0
+            ON CONFLICT (course_id, assignment_id, stripe) DO UPDATE SET
+                pending = p.pending + EXCLUDED.pending,
+                submitted = p.submitted + EXCLUDED.submitted,
+                graded = p.graded + EXCLUDED.graded,
+                late = p.late + EXCLUDED.late,
+                grade_sum = p.grade_sum + EXCLUDED.grade_sum,
+                grade_count = p.grade_count + EXCLUDED.grade_count
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProgressRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<AssignmentProgress> findByCourseId(Long courseId) {
+        return jdbcTemplate.query(COURSE_SQL, new MapSqlParameterSource("courseId", courseId), (rs, i) -> {
+            long gradeCount = rs.getLong("grade_count");
+            return new AssignmentProgress(
+                    rs.getLong("assignment_id"),
+                    rs.getLong("pending"),
+                    rs.getLong("submitted"),
+                    rs.getLong("graded"),
+                    rs.getLong("late"),
+                    gradeCount,
+                    gradeCount == 0 ? null : (double) rs.getLong("grade_sum") / gradeCount);
+        });
+    }
+
+    public List<Long> findCourseIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM courses WHERE id > :after ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("after", afterId)
+                        .addValue("limit", limit), Long.class);
+    }
+
+    // call inside a transaction; returns the number of assignments whose counters had drifted
+    public int repair(List<Long> courseIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", courseIds.toArray(Long[]::new));
+        jdbcTemplate.queryForList(LOCK_SQL, params);
+        return jdbcTemplate.update(REPAIR_SQL, params);
+    }
+}
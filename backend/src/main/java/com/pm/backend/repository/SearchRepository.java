@@ -0,0 +1,104 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.SearchHit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Full-text search over the {@code search_vector} columns (see db/migration).
+ * Matching and ranking use the GIN indexes; {@code ts_headline}, which has to re-parse the original text,
+ * only runs for the rows of the requested page.
+ */
+@Repository
+public class SearchRepository {
+
+    // teachers see their own courses and every submission in them
+    private static final String TEACHER_COURSES = "SELECT c.id FROM courses c WHERE c.teacher_id = :userId";
+    private static final String TEACHER_SUBMISSIONS = """
+            SELECT s.id, a.course_id, a.id AS assignment_id, a.title, s.search_vector
+            FROM submissions s
+            JOIN assignments a ON a.id = s.assignment_id
+            JOIN courses c ON c.id = a.course_id
+            WHERE c.teacher_id = :userId
+            """;
+
+    // students see the courses they are enrolled in and only their own submissions
+    private static final String STUDENT_COURSES = "SELECT e.course_id AS id FROM enrollments e WHERE e.student_id = :userId";
+    private static final String STUDENT_SUBMISSIONS = """
+            SELECT s.id, a.course_id, a.id AS assignment_id, a.title, s.search_vector
+            FROM submissions s
+            JOIN assignments a ON a.id = s.assignment_id
+            WHERE s.student_id = :userId
+            """;
+
+    private static final String HIGHLIGHT_OPTIONS = "StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8";
+
+    private static String searchSql(String visibleCourses, String visibleSubmissions) {
+        return """
+                WITH q AS (
+                    SELECT websearch_to_tsquery('english', :query) AS query
+                ),
+                visible AS (%s),
+                hits AS (
+                    SELECT 'COURSE' AS type, c.id, c.id AS course_id, NULL::bigint AS assignment_id, c.title,
+                           ts_rank(c.search_vector, q.query) AS rank
+                    FROM courses c JOIN visible v ON v.id = c.id CROSS JOIN q
+                    WHERE c.search_vector @@ q.query
+                    UNION ALL
+                    SELECT 'ASSIGNMENT', a.id, a.course_id, a.id, a.title,
+                           ts_rank(a.search_vector, q.query)
+                    FROM assignments a JOIN visible v ON v.id = a.course_id CROSS JOIN q
+                    WHERE a.search_vector @@ q.query
+                    UNION ALL
+                    SELECT 'SUBMISSION', s.id, s.course_id, s.assignment_id, s.title,
+                           ts_rank(s.search_vector, q.query)
+                    FROM (%s) s CROSS JOIN q
+                    WHERE s.search_vector @@ q.query
+                ),
+                page AS (
+                    SELECT * FROM hits ORDER BY rank DESC, type, id LIMIT :limit OFFSET :offset
+                )
+                SELECT p.type, p.id, p.course_id, p.assignment_id, p.title, p.rank,
+                       ts_headline('english',
+                                   CASE p.type
+                                       WHEN 'COURSE' THEN coalesce(c.description, c.title)
+                                       WHEN 'ASSIGNMENT' THEN coalesce(a.description, a.title)
+                                       ELSE coalesce(s.content, s.content_preview)
+                                   END,
+                                   q.query, '%s') AS snippet
+                FROM page p CROSS JOIN q
+                LEFT JOIN courses c ON p.type = 'COURSE' AND c.id = p.id
+                LEFT JOIN assignments a ON p.type = 'ASSIGNMENT' AND a.id = p.id
+                LEFT JOIN submissions s ON p.type = 'SUBMISSION' AND s.assignment_id = p.assignment_id AND s.id = p.id
+                ORDER BY p.rank DESC, p.type, p.id
+                """.formatted(visibleCourses, visibleSubmissions, HIGHLIGHT_OPTIONS);
+    }
+
+    private static final String TEACHER_SQL = searchSql(TEACHER_COURSES, TEACHER_SUBMISSIONS);
+    private static final String STUDENT_SQL = searchSql(STUDENT_COURSES, STUDENT_SUBMISSIONS);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<SearchHit> search(Long userId, boolean teacher, String query, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("query", query)
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(teacher ? TEACHER_SQL : STUDENT_SQL, params, (rs, i) -> new SearchHit(
+                SearchHit.Type.valueOf(rs.getString("type")),
+                rs.getLong("id"),
+                rs.getLong("course_id"),
+                rs.getObject("assignment_id", Long.class),
+                rs.getString("title"),
+                rs.getString("snippet"),
+                rs.getDouble("rank")));
+    }
+}
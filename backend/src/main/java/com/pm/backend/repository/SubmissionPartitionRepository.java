@@ -0,0 +1,173 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.SubmissionPartition;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The partitions of submissions, ranges of assignment_id (see V4__partition_submissions.sql), read from the
+ * catalog and changed with DDL. Names are generated here or read back from pg_class, never taken from a caller.
+ * <p>
+ * Queries that filter on assignment_id are pruned to one partition. Lookups by submission id alone (findById,
+ * grading, findContentRefById) are not, whatever V4's header says: they probe idx_submissions_id in every
+ * attached partition.
+ */
+@Repository
+public class SubmissionPartitionRepository {
+
+    // distinguishes the partition manager's advisory lock from any other in the database
+    private static final long PARTITION_LOCK = 0x6c6d735f70617274L;
+
+    private static final String ARCHIVE_SCHEMA = "lms_archive";
+    private static final String CHECK_VIOLATION = "23514";
+
+    // attached partitions in range order; bounds come back as FROM (MINVALUE) TO ('10001') or FROM ('10001') TO ...
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname AS name, b[1] AS from_id, b[2] AS to_id, greatest(c.reltuples, 0)::bigint AS estimated_rows
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            CROSS JOIN LATERAL regexp_match(pg_get_expr(c.relpartbound, c.oid),
+                                            'FROM \\(''?(\\w+)''?\\) TO \\(''?(\\w+)''?\\)') b
+            WHERE i.inhparent = 'submissions'::regclass
+              AND NOT i.inhdetachpending
+            ORDER BY b[2]::numeric
+            """;
+
+    // highest assignment id handed out so far, including ones whose insert rolled back
+    private static final String ASSIGNMENT_HIGH_WATER_SQL = """
+            SELECT greatest(coalesce(max(id), 0),
+                            coalesce(pg_sequence_last_value(pg_get_serial_sequence('assignments', 'id')::regclass), 0))
+            FROM assignments
+            """;
+
+    // a range is cold once every assignment in it was due (or, without a due date, created) before the cutoff
+    private static final String HAS_RECENT_ASSIGNMENTS_SQL = """
+            SELECT EXISTS (
+                SELECT 1 FROM assignments a
+                WHERE a.id >= :fromId AND a.id < :toId
+                  AND coalesce(a.due_date, a.created_at, 'infinity') >= :cutoff
+            )
+            """;
+
+    private static final String PENDING_DETACH_SQL = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'submissions'::regclass AND i.inhdetachpending
+            """;
+
+    // partitions that are detached but not yet archived: the job stopped between the two steps. Only names this
+    // repository or V4 gave a partition qualify, never another table that happens to start with submissions_
+    private static final String DETACHED_SQL = """
+            SELECT c.relname FROM pg_class c
+            WHERE c.relnamespace = 'public'::regnamespace AND c.relkind = 'r' AND NOT c.relispartition
+              AND c.relname ~ '^submissions_(legacy|from_[0-9]+)$'
+            """;
+
+    private static final String CLOSE_ARCHIVED_SQL = """
+            UPDATE assignments SET swept_at = :now
+            WHERE swept_at IS NULL AND id < :liveFrom
+            """;
+
+    private static final RowMapper<SubmissionPartition> PARTITION_MAPPER = (rs, rowNum) -> new SubmissionPartition(
+            rs.getString("name"),
+            "MINVALUE".equals(rs.getString("from_id")) ? null : Long.valueOf(rs.getString("from_id")),
+            Long.parseLong(rs.getString("to_id")),
+            rs.getLong("estimated_rows"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SubmissionPartitionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<SubmissionPartition> findPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, PARTITION_MAPPER);
+    }
+
+    public long findAssignmentHighWater() {
+        Long highWater = jdbcTemplate.getJdbcTemplate().queryForObject(ASSIGNMENT_HIGH_WATER_SQL, Long.class);
+        return highWater == null ? 0 : highWater;
+    }
+
+    public boolean hasRecentAssignments(long fromId, long toId, LocalDateTime cutoff) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_RECENT_ASSIGNMENTS_SQL, new MapSqlParameterSource()
+                .addValue("fromId", fromId)
+                .addValue("toId", toId)
+                .addValue("cutoff", cutoff), Boolean.class));
+    }
+
+    // inside a transaction: false when another instance is managing partitions right now
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:lock)",
+                new MapSqlParameterSource("lock", PARTITION_LOCK), Boolean.class));
+    }
+
+    // returns the new partition's name; its indexes, constraints and triggers are cloned from submissions
+    public String createPartition(long fromId, long toId) {
+        String name = "submissions_from_" + fromId;
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE %s PARTITION OF submissions FOR VALUES FROM (%d) TO (%d)"
+                .formatted(name, fromId, toId));
+        return name;
+    }
+
+    // CONCURRENTLY only waits for queries already running against the partition instead of blocking submissions,
+    // and cannot run inside a transaction: call without one
+    public void detachConcurrently(String partition) {
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE submissions DETACH PARTITION %s CONCURRENTLY"
+                .formatted(quote(partition)));
+    }
+
+    // detaches interrupted part-way (connection lost, instance stopped) stay pending until finalized
+    public List<String> findPendingDetaches() {
+        return jdbcTemplate.getJdbcTemplate().queryForList(PENDING_DETACH_SQL, String.class);
+    }
+
+    public void finalizeDetach(String partition) {
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE submissions DETACH PARTITION %s FINALIZE"
+                .formatted(quote(partition)));
+    }
+
+    public List<String> findDetached() {
+        return jdbcTemplate.getJdbcTemplate().queryForList(DETACHED_SQL, String.class);
+    }
+
+    // call inside a transaction with a detached partition: it moves to the archive schema and the progress counters
+    // of its assignments are deleted. They are not kept anywhere: the repair job only counts live submissions and
+    // would zero them anyway, and they can be recounted from the archived table if ever needed.
+    // Assignments of the range the deadline sweeper has not reached yet are marked swept: it could no longer write
+    // their PENDING rows, and a chunk failing on them would hold up every later deadline
+    public void archive(String partition) {
+        String archived = ARCHIVE_SCHEMA + "." + quote(partition);
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE %s SET SCHEMA %s".formatted(quote(partition), ARCHIVE_SCHEMA));
+        jdbcTemplate.getJdbcTemplate().update("""
+                DELETE FROM assignment_progress
+                WHERE assignment_id IN (SELECT DISTINCT assignment_id FROM %s)
+                """.formatted(archived));
+        // ranges are archived oldest first, so every id below the first live range belongs to an archived one
+        List<SubmissionPartition> live = findPartitions();
+        Long liveFrom = live.isEmpty() ? null : live.getFirst().fromAssignmentId();
+        if (liveFrom != null) {
+            jdbcTemplate.update(CLOSE_ARCHIVED_SQL, new MapSqlParameterSource()
+                    .addValue("now", LocalDateTime.now())
+                    .addValue("liveFrom", liveFrom));
+        }
+    }
+
+    // what a write to an assignment outside every attached range fails with: PostgreSQL reports the missing
+    // partition as check_violation, and the only CHECK on submissions (status) is one the application never breaks
+    public static boolean isOutsideEveryPartition(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sql
+                && CHECK_VIOLATION.equals(sql.getSQLState());
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,13 +1,109 @@
 package com.pm.backend.repository;
 
+import com.pm.backend.dto.SubmissionContentRef;
+import com.pm.backend.dto.SubmissionView;
 import com.pm.backend.entity.Submission;
+import com.pm.backend.entity.SubmissionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
+    // Insert-or-resubmit in one statement. A keyed submit first claims its key in submission_idempotency_keys;
+    // a retry finds the key already claimed, however many other submits came in between, and writes nothing,
+    // so a late replay can never put older content back over a newer one. Unkeyed submits always write.
+    // The body is already in the blob store; the row gets its hash, size and preview, plus the search vector.
+    // Lateness is decided here against the assignment's due date, so the sync and batched paths agree.
+    String UPSERT_SQL = """
+            WITH claimed_key AS (
+                INSERT INTO submission_idempotency_keys (assignment_id, student_id, idempotency_key, created_at)
+                SELECT :assignmentId, :studentId, CAST(:idempotencyKey AS varchar), :submittedAt
+                WHERE CAST(:idempotencyKey AS varchar) IS NOT NULL
+                ON CONFLICT DO NOTHING
+                RETURNING 1
+            )
+            INSERT INTO submissions (assignment_id, student_id, content_hash, content_size, content_preview,
+                                     search_vector, status, late, submitted_at, idempotency_key)
+            SELECT :assignmentId, :studentId, :contentHash, :contentSize, :contentPreview,
+                   to_tsvector('english', :searchText), 'SUBMITTED',
+                   coalesce(CAST(:submittedAt AS timestamp) > (SELECT a.due_date FROM assignments a WHERE a.id = :assignmentId), false),
+                   :submittedAt, CAST(:idempotencyKey AS varchar)
+            WHERE CAST(:idempotencyKey AS varchar) IS NULL
+               OR EXISTS (SELECT 1 FROM claimed_key)
+            ON CONFLICT (assignment_id, student_id) DO UPDATE
+            SET content = NULL,
+                content_hash = EXCLUDED.content_hash,
+                content_size = EXCLUDED.content_size,
+                content_preview = EXCLUDED.content_preview,
+                search_vector = EXCLUDED.search_vector,
+                status = EXCLUDED.status,
+                late = EXCLUDED.late,
+                submitted_at = EXCLUDED.submitted_at,
+                idempotency_key = EXCLUDED.idempotency_key
+            """;
+
+    // claimed keys only need to outlive the window in which a client may still retry
+    @Modifying
+    @Query(value = "DELETE FROM submission_idempotency_keys WHERE created_at < :before", nativeQuery = true)
+    int deleteIdempotencyKeysBefore(@Param("before") LocalDateTime before);
+
     List<Submission> findByAssignmentId(Long assignmentId);
 
     Optional<Submission> findByAssignmentIdAndStudentId(Long assignmentId, Long studentId);
-}
\ No newline at end of file
+
+    // keyset page: seeks on (assignment_id, id) so deep cursors cost the same as the first page;
+    // only the preview is selected, never the body
+    @Query("""
+            select new com.pm.backend.dto.SubmissionView(s.id, s.contentPreview, s.contentSize, s.grade, s.feedback, s.status,
+                s.late, s.submittedAt, s.assignment.id, st.id, st.username, st.fullName, st.role)
+            from Submission s join s.student st
+            where s.assignment.id = :assignmentId
+              and s.id > :afterId
+              and (:status is null or s.status = :status)
+              and (cast(:submittedFrom as LocalDateTime) is null or s.submittedAt >= :submittedFrom)
+              and (cast(:submittedTo as LocalDateTime) is null or s.submittedAt < :submittedTo)
+            order by s.id
+            """)
+    List<SubmissionView> findPageByAssignmentId(@Param("assignmentId") Long assignmentId,
+                                                @Param("afterId") Long afterId,
+                                                @Param("status") SubmissionStatus status,
+                                                @Param("submittedFrom") LocalDateTime submittedFrom,
+                                                @Param("submittedTo") LocalDateTime submittedTo,
+                                                Limit limit);
+
+    @Modifying
+    @Query(value = UPSERT_SQL, nativeQuery = true)
+    int upsertSubmission(@Param("assignmentId") Long assignmentId,
+                         @Param("studentId") Long studentId,
+                         @Param("contentHash") String contentHash,
+                         @Param("contentSize") Long contentSize,
+                         @Param("contentPreview") String contentPreview,
+                         @Param("searchText") String searchText,
+                         @Param("submittedAt") LocalDateTime submittedAt,
+                         @Param("idempotencyKey") String idempotencyKey);
+
+    @Query("""
+            select new com.pm.backend.dto.SubmissionView(s.id, s.contentPreview, s.contentSize, s.grade, s.feedback, s.status,
+                s.late, s.submittedAt, s.assignment.id, st.id, st.username, st.fullName, st.role)
+            from Submission s join s.student st
+            where s.assignment.id = :assignmentId and st.id = :studentId
+            """)
+    Optional<SubmissionView> findViewByAssignmentIdAndStudentId(@Param("assignmentId") Long assignmentId,
+                                                                @Param("studentId") Long studentId);
+
+    // by id alone, like findById and the grade update: callers only have the submission id, so this probes
+    // idx_submissions_id in every attached partition instead of being pruned to one
+    @Query("""
+            select new com.pm.backend.dto.SubmissionContentRef(s.id, s.contentHash, s.contentSize, s.content)
+            from Submission s
+            where s.id = :submissionId
+            """)
+    Optional<SubmissionContentRef> findContentRefById(@Param("submissionId") Long submissionId);
+}
@@ -1,12 +1,21 @@
 package com.pm.backend.service;
 
+import com.pm.backend.config.CacheConfig;
+import com.pm.backend.dto.AssignmentView;
+import com.pm.backend.dto.CourseChangedEvent;
+import com.pm.backend.dto.OutboxEvent;
 import com.pm.backend.entity.Assignment;
 import com.pm.backend.entity.Course;
 import com.pm.backend.entity.User;
 import com.pm.backend.repository.AssignmentRepository;
 import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.OutboxRepository;
 import com.pm.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,21 +28,29 @@ public class AssignmentService {
     private final AssignmentRepository assignmentRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final OutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public List<Assignment> getAssignmentsByCourse(Long courseId) {
-        return assignmentRepository.findByCourseId(courseId);
+    @Cacheable(cacheNames = CacheConfig.COURSE_ASSIGNMENTS, sync = true)
+    public List<AssignmentView> getAssignmentsByCourse(Long courseId) {
+        return assignmentRepository.findViewsByCourseId(courseId);
     }
 
 
-    public Assignment getAssignmentById(Long assignmentId) {
-        return assignmentRepository.findById(assignmentId)
+    @Cacheable(cacheNames = CacheConfig.ASSIGNMENTS, sync = true)
+    public AssignmentView getAssignmentById(Long assignmentId) {
+        return assignmentRepository.findViewById(assignmentId)
                 .orElseThrow(() -> new RuntimeException("Assignment not found"));
     }
 
 
     @Transactional
-    public Assignment createAssignment(Long teacherId, Long courseId, Assignment assignmentData) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.COURSE_ASSIGNMENTS, key = "#courseId"),
+            @CacheEvict(cacheNames = CacheConfig.ASSIGNMENTS, key = "#result.id()")
+    })
+    public AssignmentView createAssignment(Long teacherId, Long courseId, Assignment assignmentData) {
         // find teacher
         User teacher = userRepository.findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
@@ -51,6 +68,9 @@ public class AssignmentService {
         assignmentData.setCourse(course);
 
         // save assignment
-        return assignmentRepository.save(assignmentData);
+        AssignmentView created = AssignmentView.from(assignmentRepository.save(assignmentData));
+        outboxRepository.recordAssignment(OutboxEvent.ASSIGNMENT_CREATED, created.id());
+        eventPublisher.publishEvent(CourseChangedEvent.assignmentsChanged(courseId));
+        return created;
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.pm.backend.service;
+
+import com.pm.backend.repository.BlobReferenceRepository;
+import com.pm.backend.storage.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deletes blobs that no submission references: bodies replaced by a resubmit, and uploads stored before a submit
+ * that then failed (unknown assignment or student) or rolled back.
+ * <p>
+ * Only blobs not written for the grace period are considered. Storing bytes the store already holds counts as a
+ * write, and each blob is checked again just before it is deleted, so a body a submit is about to reference is
+ * never collected under it.
+ */
+@Slf4j
+@Component
+public class BlobGarbageCollector {
+
+    private static final int STAGE_BATCH = 1000;
+
+    private final BlobStore blobStore;
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration grace;
+
+    public BlobGarbageCollector(BlobStore blobStore,
+                                BlobReferenceRepository blobReferenceRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${lms.blobs.gc.enabled:true}") boolean enabled,
+                                @Value("${lms.blobs.gc.grace:1d}") Duration grace) {
+        this.blobStore = blobStore;
+        this.blobReferenceRepository = blobReferenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.grace = grace;
+    }
+
+    @Scheduled(initialDelayString = "${lms.blobs.gc.interval:24h}", fixedDelayString = "${lms.blobs.gc.interval:24h}")
+    public void scheduledCollect() {
+        if (enabled) collect();
+    }
+
+    // returns the number of blobs deleted
+    public int collect() {
+        Instant cutoff = Instant.now().minus(grace);
+        List<String> orphans = transactionTemplate.execute(tx -> {
+            List<String> batch = new ArrayList<>(STAGE_BATCH);
+            try {
+                blobStore.forEachWrittenBefore(cutoff, hash -> {
+                    batch.add(hash);
+                    if (batch.size() == STAGE_BATCH) {
+                        blobReferenceRepository.stageCandidates(batch);
+                        batch.clear();
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            blobReferenceRepository.stageCandidates(batch);
+            return blobReferenceRepository.findUnreferencedCandidates();
+        });
+
+        int deleted = 0;
+        for (String hash : orphans == null ? List.<String>of() : orphans) {
+            try {
+                if (blobStore.deleteIfWrittenBefore(hash, cutoff)) deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced blob {}", hash, e);
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced blobs not written since {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+}
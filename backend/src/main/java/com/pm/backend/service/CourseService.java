@@ -1,44 +1,63 @@
 package com.pm.backend.service;
+import com.pm.backend.config.CacheConfig;
+import com.pm.backend.dto.CourseChangedEvent;
+import com.pm.backend.dto.CourseView;
+import com.pm.backend.dto.RosterImportResult;
 import com.pm.backend.entity.Course;
 import com.pm.backend.entity.User;
 import com.pm.backend.entity.UserRole;
 import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.EnrollmentRepository;
 import com.pm.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 public class CourseService {
 
+    // no 0/O or 1/I, so codes survive being read aloud in class
+    private static final String INVITE_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int INVITE_LENGTH = 8;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public List<Course> getCoursesForUser(Long userId) {
+    @Transactional(readOnly = true)
+    public List<CourseView> getCoursesForUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         if (user.getRole() == UserRole.TEACHER) {
 
-            return courseRepository.findByTeacherId(userId);
+            return courseRepository.findViewsByTeacherId(userId);
         } else {
-            return user.getEnrolledCourses();
+            return courseRepository.findViewsByStudentId(userId);
         }
     }
 
 
-    public Course getCourseById(Long courseId) {
-        return courseRepository.findById(courseId)
+    @Cacheable(cacheNames = CacheConfig.COURSES, sync = true)
+    public CourseView getCourseById(Long courseId) {
+        return courseRepository.findViewById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
     }
 
 
     @Transactional
-    public Course createCourse(Long teacherId, Course courseData) {
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#result.id()")
+    public CourseView createCourse(Long teacherId, Course courseData) {
         // find teacher
         User teacher = userRepository.findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
@@ -50,9 +69,65 @@ public class CourseService {
         courseData.setTeacher(teacher);
 
         if (courseData.getInviteCode() == null || courseData.getInviteCode().isEmpty()) {
-            courseData.setInviteCode(UUID.randomUUID().toString().substring(0, 6).toUpperCase());
+            courseData.setInviteCode(newInviteCode());
+        } else {
+            courseData.setInviteCode(normalizeInviteCode(courseData.getInviteCode()));
         }
         // save course
-        return courseRepository.save(courseData);
+        CourseView created = CourseView.from(courseRepository.save(courseData));
+        eventPublisher.publishEvent(CourseChangedEvent.membershipChanged(created.id()));
+        return created;
+    }
+
+
+    // one indexed lookup plus one insert; joining twice is harmless
+    @Transactional
+    public CourseView joinCourse(Long studentId, String inviteCode) {
+        if (inviteCode == null || inviteCode.isBlank()) {
+            throw new RuntimeException("Invite code is required");
+        }
+        User student = userRepository.findById(studentId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (student.getRole() != UserRole.STUDENT) {
+            throw new RuntimeException("Only students can join courses");
+        }
+        CourseView course = courseRepository.findViewByInviteCode(normalizeInviteCode(inviteCode))
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+
+        if (enrollmentRepository.enroll(studentId, course.id())) {
+            eventPublisher.publishEvent(CourseChangedEvent.membershipChanged(course.id()));
+        }
+        return course;
+    }
+
+
+    @Transactional
+    public RosterImportResult importRoster(Long teacherId, Long courseId, List<String> usernames) {
+        CourseView course = getCourseById(courseId);
+        if (!course.teacher().id().equals(teacherId)) {
+            throw new RuntimeException("Only the course teacher can import a roster");
+        }
+        RosterImportResult result = enrollmentRepository.enrollByUsernames(courseId, usernames);
+        if (result.enrolled() > 0) {
+            eventPublisher.publishEvent(CourseChangedEvent.membershipChanged(courseId));
+        }
+        return result;
+    }
+
+
+    private String newInviteCode() {
+        String code;
+        do {
+            StringBuilder sb = new StringBuilder(INVITE_LENGTH);
+            for (int i = 0; i < INVITE_LENGTH; i++) {
+                sb.append(INVITE_ALPHABET.charAt(RANDOM.nextInt(INVITE_ALPHABET.length())));
+            }
+            code = sb.toString();
+        } while (courseRepository.existsByInviteCode(code));
+        return code;
+    }
+
+    private static String normalizeInviteCode(String inviteCode) {
+        return inviteCode.trim().toUpperCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.CourseChangedEvent;
+import com.pm.backend.dto.SubmissionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version stamps behind the ETags of the polled read endpoints, so a repeat poll is answered with 304 from memory.
+ * <p>
+ * A course's version moves when an assignment is created in it or a submission in it is submitted or graded;
+ * course lists move when any course is created or joined. Versions are bumped after the writing transaction
+ * commits and read before the response body is loaded, so a tag can only ever be older than its body (costing
+ * one extra 200), never newer. Stamps live in this process only: the epoch prefix makes tags issued before a
+ * restart, or by another instance, miss instead of matching a stale version.
+ * <p>
+ * With read replicas the body may come from a replica that has not replayed the change yet, so while a version
+ * is younger than the settle window no tag is handed out (null) and the endpoint answers 200 without one. A replica
+ * stays in rotation while its last check, up to max-lag old, measured at most max-lag, so it can be twice that far
+ * behind; the window adds the check interval and a margin on top.
+ */
+@Service
+public class CourseVersions {
+
+    private static final Stamp INITIAL = new Stamp(0, 0);
+    private static final Duration SETTLE_MARGIN = Duration.ofSeconds(1);
+
+    private final AssignmentService assignmentService;
+    private final long settleNanos;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<Long, Stamp> courses = new ConcurrentHashMap<>();
+    private final AtomicReference<Stamp> memberships = new AtomicReference<>(INITIAL);
+
+    public CourseVersions(AssignmentService assignmentService,
+                          @Value("${lms.datasource.replicas:}") List<String> replicas,
+                          @Value("${lms.datasource.replica-max-lag:5s}") Duration replicaMaxLag,
+                          @Value("${lms.datasource.replica-check-interval:1s}") Duration replicaCheckInterval) {
+        this.assignmentService = assignmentService;
+        this.settleNanos = replicas.isEmpty() ? 0
+                : replicaMaxLag.multipliedBy(2).plus(replicaCheckInterval).plus(SETTLE_MARGIN).toNanos();
+    }
+
+    // assignments of a course and the submissions under them
+    public String courseTag(Long courseId) {
+        Stamp stamp = courses.getOrDefault(courseId, INITIAL);
+        return settled(stamp) ? weak(epoch + "-c" + courseId + "." + stamp.version()) : null;
+    }
+
+    // submissions of an assignment are versioned with its course; the course id comes from the assignment cache.
+    // An unknown assignment gets no tag, so the endpoint answers as it would without conditional requests
+    public String assignmentTag(Long assignmentId) {
+        Long courseId;
+        try {
+            courseId = assignmentService.getAssignmentById(assignmentId).courseId();
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return courseTag(courseId);
+    }
+
+    // the course list of one user
+    public String courseListTag(Long userId) {
+        Stamp stamp = memberships.get();
+        return settled(stamp) ? weak(epoch + "-m" + stamp.version() + "-u" + userId) : null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionEvent(SubmissionEvent event) {
+        bump(event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.membershipChanged()) {
+            memberships.updateAndGet(Stamp::next);
+        } else {
+            bump(event.courseId());
+        }
+    }
+
+    // weak: the tag names a version of the data, not the bytes, and Tomcat only gzips responses without a strong ETag
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private boolean settled(Stamp stamp) {
+        return settleNanos == 0 || stamp.version() == 0 || System.nanoTime() - stamp.bumpedAt() >= settleNanos;
+    }
+
+    private void bump(Long courseId) {
+        if (courseId != null) courses.merge(courseId, INITIAL.next(), (current, ignored) -> current.next());
+    }
+
+    private record Stamp(long version, long bumpedAt) {
+
+        Stamp next() {
+            return new Stamp(version + 1, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.CourseView;
+import com.pm.backend.dto.DashboardAssignment;
+import com.pm.backend.dto.StudentDashboard;
+import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final CourseRepository courseRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final UserRepository userRepository;
+
+    // recently overdue work stays on the dashboard for this long
+    @Value("${lms.dashboard.lookback:7d}")
+    private Duration lookback;
+
+
+    // two projection queries in one read-only transaction; no entity or lazy collection is touched.
+    // Only a student without courses costs a third, to tell an empty dashboard from an unknown user
+    @Transactional(readOnly = true)
+    public StudentDashboard getStudentDashboard(Long studentId) {
+        List<CourseView> courses = courseRepository.findViewsByStudentId(studentId);
+        if (courses.isEmpty()) {
+            if (!userRepository.existsById(studentId)) {
+                throw new RuntimeException("User not found");
+            }
+            return new StudentDashboard(courses, List.of());
+        }
+        List<DashboardAssignment> assignments =
+                assignmentRepository.findDashboardAssignments(studentId, LocalDateTime.now().minus(lookback));
+        return new StudentDashboard(courses, assignments);
+    }
+}
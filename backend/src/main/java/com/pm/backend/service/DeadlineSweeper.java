@@ -0,0 +1,168 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closes assignments whose due date has passed: flags submissions that came in after it as late and records a
+ * PENDING row for every enrolled student who has not submitted, so missing work shows up in listings.
+ * <p>
+ * Works in chunks of assignments, three set-based statements per chunk, and marks each chunk with
+ * {@code assignments.swept_at}. The chunk is claimed with FOR NO KEY UPDATE SKIP LOCKED: instances share the
+ * backlog without waiting on each other, and the lock does not conflict with the key-share locks that foreign
+ * keys take, so submits to those assignments go on. A deadline that 40k assignments share becomes a few hundred
+ * short transactions instead of one long one.
+ * <p>
+ * Each assignment whose submissions a chunk changed gets a {@link SubmissionEvent.Type#CLOSED} event after the chunk
+ * commits, which moves its course version (ETags) and tells listening clients to re-read the list.
+ */
+@Slf4j
+@Component
+public class DeadlineSweeper {
+
+    private static final String CLAIM_SQL = """
+            SELECT id, course_id FROM assignments
+            WHERE swept_at IS NULL AND due_date <= :now
+            ORDER BY due_date, id
+            LIMIT :limit
+            FOR NO KEY UPDATE SKIP LOCKED
+            """;
+
+    // catches rows written before lateness was recorded at submit time. The ids are repeated on s.assignment_id so
+    // only the partitions holding the chunk's assignments are touched. Both statements answer rows changed per
+    // assignment
+    private static final String MARK_LATE_SQL = """
+            WITH changed AS (
+                UPDATE submissions s
+                SET late = true
+                FROM assignments a
+                WHERE a.id = ANY(CAST(:ids AS bigint[]))
+                  AND s.assignment_id = ANY(CAST(:ids AS bigint[]))
+                  AND s.assignment_id = a.id
+                  AND s.status <> 'PENDING'
+                  AND NOT s.late
+                  AND s.submitted_at > a.due_date
+                RETURNING s.assignment_id
+            )
+            SELECT assignment_id, count(*) FROM changed GROUP BY assignment_id
+            """;
+
+    // ON CONFLICT leaves real submissions alone, and a student submitting at this moment simply wins. Inserted
+    // course by course, assignment by assignment, so the progress triggers lock counters in the order
+    // ProgressRepository's repair does
+    private static final String INSERT_MISSING_SQL = """
+            WITH changed AS (
+                INSERT INTO submissions (assignment_id, student_id, status, late)
+                SELECT a.id, e.student_id, 'PENDING', false
+                FROM assignments a
+                JOIN enrollments e ON e.course_id = a.course_id
+                WHERE a.id = ANY(CAST(:ids AS bigint[]))
+                ORDER BY a.course_id, a.id
+                ON CONFLICT (assignment_id, student_id) DO NOTHING
+                RETURNING assignment_id
+            )
+            SELECT assignment_id, count(*) FROM changed GROUP BY assignment_id
+            """;
+
+    private static final String MARK_SWEPT_SQL = """
+            UPDATE assignments SET swept_at = :now WHERE id = ANY(CAST(:ids AS bigint[]))
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxRun;
+
+    public DeadlineSweeper(NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${lms.sweeper.enabled:true}") boolean enabled,
+                           @Value("${lms.sweeper.batch-size:50}") int batchSize,
+                           @Value("${lms.sweeper.max-run:30s}") Duration maxRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxRun = maxRun;
+    }
+
+    // runs for at most max-run, then yields the scheduler until the next tick
+    @Scheduled(initialDelayString = "${lms.sweeper.interval:1m}", fixedDelayString = "${lms.sweeper.interval:1m}")
+    public void sweep() {
+        if (!enabled) return;
+        long deadline = System.nanoTime() + maxRun.toNanos();
+        ChunkResult total = ChunkResult.EMPTY;
+        ChunkResult chunk;
+        do {
+            chunk = sweepChunk(LocalDateTime.now());
+            total = total.plus(chunk);
+        } while (chunk.assignments() == batchSize && System.nanoTime() < deadline);
+        if (total.assignments() > 0) {
+            log.info("Swept {} past-due assignments: {} late submissions flagged, {} missing recorded",
+                    total.assignments(), total.late(), total.missing());
+        }
+    }
+
+    ChunkResult sweepChunk(LocalDateTime now) {
+        ChunkResult result = transactionTemplate.execute(tx -> {
+            Map<Long, Long> courseIds = new HashMap<>();
+            jdbcTemplate.query(CLAIM_SQL, new MapSqlParameterSource()
+                    .addValue("now", now)
+                    .addValue("limit", batchSize),
+                    rs -> { courseIds.put(rs.getLong("id"), rs.getLong("course_id")); });
+            if (courseIds.isEmpty()) return ChunkResult.EMPTY;
+
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", courseIds.keySet().toArray(Long[]::new))
+                    .addValue("now", now);
+            Map<Long, Long> late = countByAssignment(MARK_LATE_SQL, params);
+            Map<Long, Long> missing = countByAssignment(INSERT_MISSING_SQL, params);
+            jdbcTemplate.update(MARK_SWEPT_SQL, params);
+
+            // delivered once the chunk commits
+            courseIds.forEach((assignmentId, courseId) -> {
+                if (late.containsKey(assignmentId) || missing.containsKey(assignmentId)) {
+                    eventPublisher.publishEvent(SubmissionEvent.closed(assignmentId, courseId));
+                }
+            });
+            return new ChunkResult(courseIds.size(), sum(late), sum(missing));
+        });
+        return result == null ? ChunkResult.EMPTY : result;
+    }
+
+    private Map<Long, Long> countByAssignment(String sql, MapSqlParameterSource params) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> { counts.put(rs.getLong(1), rs.getLong(2)); });
+        return counts;
+    }
+
+    private static long sum(Map<Long, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    record ChunkResult(int assignments, long late, long missing) {
+
+        static final ChunkResult EMPTY = new ChunkResult(0, 0, 0);
+
+        ChunkResult plus(ChunkResult other) {
+            return new ChunkResult(assignments + other.assignments, late + other.late, missing + other.missing);
+        }
+    }
+}
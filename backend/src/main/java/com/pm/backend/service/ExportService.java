@@ -0,0 +1,31 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionExportRow;
+import com.pm.backend.repository.ExportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private final ExportRepository exportRepository;
+
+
+    // the transaction keeps the cursor open while the sink writes each row out
+    @Transactional(readOnly = true)
+    public void streamCourseExport(Long courseId, Consumer<SubmissionExportRow> rows) {
+        exportRepository.streamCourse(courseId, rows);
+    }
+
+
+    // a term is the range of due dates from..to, both days included
+    @Transactional(readOnly = true)
+    public void streamTermExport(LocalDate from, LocalDate to, Consumer<SubmissionExportRow> rows) {
+        exportRepository.streamDueBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), rows);
+    }
+}
@@ -0,0 +1,81 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.GradeEntry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses grade uploads of the form {@code submissionId,grade,feedback}.
+ * The header line is optional and feedback may be double-quoted to contain commas, quotes ("") or line breaks.
+ */
+public final class GradeCsvParser {
+
+    private GradeCsvParser() {
+    }
+
+    public static List<GradeEntry> parse(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        List<GradeEntry> entries = new ArrayList<>();
+        int lineNo = 0;
+        List<String> fields;
+        while ((fields = readRecord(reader)) != null) {
+            lineNo++;
+            if (fields.size() == 1 && fields.getFirst().isBlank()) continue;
+            if (lineNo == 1 && "submissionId".equalsIgnoreCase(fields.getFirst().trim())) continue;
+            if (fields.size() < 2) {
+                throw new IllegalArgumentException("Line " + lineNo + ": expected submissionId,grade[,feedback]");
+            }
+            try {
+                Long submissionId = Long.valueOf(fields.get(0).trim());
+                String grade = fields.get(1).trim();
+                String feedback = fields.size() > 2 ? fields.get(2) : null;
+                entries.add(new GradeEntry(submissionId, grade.isEmpty() ? null : Integer.valueOf(grade), feedback));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNo + ": " + e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    // reads one CSV record, which may span several physical lines inside quotes; null at end of input
+    static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,41 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.AssignmentStats;
+import com.pm.backend.dto.Gradebook;
+import com.pm.backend.dto.GradebookRow;
+import com.pm.backend.repository.GradebookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class GradebookService {
+
+    private final GradebookRepository gradebookRepository;
+    private final CourseService courseService;
+
+
+    @Transactional(readOnly = true)
+    public Gradebook getGradebook(Long courseId) {
+        courseService.getCourseById(courseId);
+
+        List<AssignmentStats> stats = gradebookRepository.findAssignmentStats(courseId);
+        List<GradebookRow> rows = new ArrayList<>();
+        gradebookRepository.streamRows(courseId, rows::add);
+        return new Gradebook(courseId, stats, rows);
+    }
+
+
+    // emits the header (assignment statistics, no students) and then one row per student;
+    // the transaction keeps the cursor open so rows are fetched in chunks as the sink consumes them
+    @Transactional(readOnly = true)
+    public void streamGradebook(Long courseId, Consumer<Gradebook> header, Consumer<GradebookRow> rows) {
+        header.accept(new Gradebook(courseId, gradebookRepository.findAssignmentStats(courseId), List.of()));
+        gradebookRepository.streamRows(courseId, rows);
+    }
+}
@@ -0,0 +1,43 @@
+package com.pm.backend.service;
+
+import com.pm.backend.repository.SubmissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes claimed submission idempotency keys older than the retention period. A client retrying with a key
+ * after that is treated as a new submit.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyPruner {
+
+    private final SubmissionRepository submissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    public IdempotencyKeyPruner(SubmissionRepository submissionRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${lms.submissions.idempotency-retention:7d}") Duration retention) {
+        this.submissionRepository = submissionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${lms.submissions.idempotency-prune-interval:1h}",
+            fixedDelayString = "${lms.submissions.idempotency-prune-interval:1h}")
+    public void prune() {
+        Integer pruned = transactionTemplate.execute(tx ->
+                submissionRepository.deleteIdempotencyKeysBefore(LocalDateTime.now().minus(retention)));
+        if (pruned != null && pruned > 0) {
+            log.info("Pruned {} submission idempotency keys older than {}", pruned, retention);
+        }
+    }
+}
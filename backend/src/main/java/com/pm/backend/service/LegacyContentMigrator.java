@@ -0,0 +1,95 @@
+package com.pm.backend.service;
+
+import com.pm.backend.service.SubmissionContentService.StoredContent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves submission bodies that are still stored inline in {@code submissions.content} into the blob store,
+ * a chunk at a time in the background. Each chunk locks its rows with SKIP LOCKED, so it never waits on (or
+ * blocks) a student resubmitting the same row; the resubmit itself clears the inline body anyway.
+ */
+@Slf4j
+@Component
+public class LegacyContentMigrator {
+
+    // reads the partial content index of every partition; only submissions_legacy can hold inline bodies, the
+    // others answer from an empty index
+    private static final String CLAIM_SQL = """
+            SELECT assignment_id, id, content FROM submissions
+            WHERE content IS NOT NULL
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    // by the full key, so each update is pruned to the row's partition
+    private static final String MOVE_SQL = """
+            UPDATE submissions
+            SET content_hash = ?, content_size = ?, content_preview = ?, content = NULL
+            WHERE assignment_id = ? AND id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SubmissionContentService contentService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxRun;
+
+    public LegacyContentMigrator(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 SubmissionContentService contentService,
+                                 @Value("${lms.blobs.migration.enabled:false}") boolean enabled,
+                                 @Value("${lms.blobs.migration.batch-size:500}") int batchSize,
+                                 @Value("${lms.blobs.migration.max-run:5s}") Duration maxRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contentService = contentService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxRun = maxRun;
+    }
+
+    // runs for at most max-run, then yields the scheduler until the next tick
+    @Scheduled(initialDelayString = "${lms.blobs.migration.interval:10s}",
+            fixedDelayString = "${lms.blobs.migration.interval:10s}")
+    public void migrate() {
+        if (!enabled) return;
+        long deadline = System.nanoTime() + maxRun.toNanos();
+        int total = 0;
+        int moved;
+        do {
+            moved = migrateChunk();
+            total += moved;
+        } while (moved == batchSize && System.nanoTime() < deadline);
+        if (total > 0) {
+            log.info("Moved {} inline submission bodies to the blob store", total);
+        }
+    }
+
+    int migrateChunk() {
+        Integer moved = transactionTemplate.execute(tx -> {
+            List<Object[]> updates = new ArrayList<>(batchSize);
+            jdbcTemplate.query(CLAIM_SQL, rs -> {
+                StoredContent content = contentService.store(rs.getString("content"));
+                updates.add(new Object[]{content.hash(), content.size(), content.preview(),
+                        rs.getLong("assignment_id"), rs.getLong("id")});
+            }, batchSize);
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(MOVE_SQL, updates);
+            }
+            return updates.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+}
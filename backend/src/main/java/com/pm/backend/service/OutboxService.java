@@ -0,0 +1,47 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.ConsumerOffset;
+import com.pm.backend.dto.OutboxEvent;
+import com.pm.backend.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// read side of the outbox for pull consumers; reads touch outbox_events only, never the submission tables
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final int MAX_BATCH = 1000;
+
+    private final OutboxRepository outboxRepository;
+
+
+    @Transactional(readOnly = true)
+    public List<OutboxEvent> getEvents(long afterPosition, int limit) {
+        return outboxRepository.findEvents(afterPosition, Math.max(1, Math.min(limit, MAX_BATCH)));
+    }
+
+
+    @Transactional(readOnly = true)
+    public List<ConsumerOffset> getOffsets() {
+        return outboxRepository.findOffsets();
+    }
+
+
+    // commits a pull consumer's progress, or rewinds any consumer for a replay; the relay picks up a rewound
+    // sink from the new position on its next tick
+    @Transactional
+    public ConsumerOffset setOffset(String consumer, long position) {
+        if (position < 0) {
+            throw new RuntimeException("Position must not be negative");
+        }
+        outboxRepository.saveOffset(consumer, position);
+        return outboxRepository.findOffsets().stream()
+                .filter(offset -> offset.consumer().equals(consumer))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Consumer not found"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.AssignmentProgress;
+import com.pm.backend.dto.CourseProgress;
+import com.pm.backend.repository.ProgressRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ProgressService {
+
+    private final ProgressRepository progressRepository;
+
+
+    // reads the precomputed counters only; no submission rows are touched
+    @Transactional(readOnly = true)
+    public CourseProgress getCourseProgress(Long courseId) {
+        List<AssignmentProgress> assignments = progressRepository.findByCourseId(courseId);
+        long pending = 0, submitted = 0, graded = 0, late = 0, gradeCount = 0;
+        double gradeSum = 0;
+        for (AssignmentProgress a : assignments) {
+            pending += a.pending();
+            submitted += a.submitted();
+            graded += a.graded();
+            late += a.late();
+            if (a.averageGrade() != null) {
+                gradeSum += a.averageGrade() * a.gradeCount();
+                gradeCount += a.gradeCount();
+            }
+        }
+        Double average = gradeCount == 0 ? null : gradeSum / gradeCount;
+        return new CourseProgress(courseId, pending, submitted, graded, late, average, assignments);
+    }
+}
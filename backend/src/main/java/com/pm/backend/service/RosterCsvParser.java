@@ -0,0 +1,32 @@
+package com.pm.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses roster uploads: one username per line in the first column, any further columns are ignored.
+ * The header line ({@code username}) is optional; quoting follows {@link GradeCsvParser}.
+ */
+public final class RosterCsvParser {
+
+    private RosterCsvParser() {
+    }
+
+    public static List<String> parse(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        List<String> usernames = new ArrayList<>();
+        int lineNo = 0;
+        List<String> fields;
+        while ((fields = GradeCsvParser.readRecord(reader)) != null) {
+            lineNo++;
+            String username = fields.getFirst().trim();
+            if (username.isEmpty()) continue;
+            if (lineNo == 1 && "username".equalsIgnoreCase(username)) continue;
+            usernames.add(username);
+        }
+        return usernames;
+    }
+}
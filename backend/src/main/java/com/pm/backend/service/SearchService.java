@@ -0,0 +1,47 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SearchHit;
+import com.pm.backend.dto.SearchResults;
+import com.pm.backend.entity.User;
+import com.pm.backend.entity.UserRole;
+import com.pm.backend.repository.SearchRepository;
+import com.pm.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    // ranking has to score every match, so deep offsets are not worth serving
+    private static final int MAX_OFFSET = 1000;
+
+    private final SearchRepository searchRepository;
+    private final UserRepository userRepository;
+
+
+    // results are limited to what the user can open: a teacher's own courses, or a student's enrolled
+    // courses and own submissions
+    @Transactional(readOnly = true)
+    public SearchResults search(Long userId, String query, int offset, int limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (query == null || query.isBlank()) {
+            return new SearchResults(List.of(), null);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int start = Math.max(0, Math.min(offset, MAX_OFFSET));
+
+        // fetch one extra row to know whether another page exists
+        List<SearchHit> rows = searchRepository.search(userId, user.getRole() == UserRole.TEACHER,
+                query.trim(), start, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new SearchResults(rows, null);
+        }
+        return new SearchResults(rows.subList(0, pageSize), start + pageSize);
+    }
+}
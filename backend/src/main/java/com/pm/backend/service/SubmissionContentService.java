@@ -0,0 +1,112 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionContentRef;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.storage.BlobRef;
+import com.pm.backend.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Moves submission bodies into the {@link BlobStore}. Submission rows keep only the hash, the size and a short
+ * preview; the same single pass over the upload also keeps the leading text for the full-text index.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubmissionContentService {
+
+    public static final int PREVIEW_CHARS = 280;
+    // the search vector is built from this much of the body; longer essays are indexed by their beginning
+    private static final int SEARCH_BYTES = 256 * 1024;
+
+    private final BlobStore blobStore;
+    private final SubmissionRepository submissionRepository;
+
+    public record StoredContent(String hash, long size, String preview, String searchText) {
+    }
+
+    public StoredContent store(String content) {
+        if (content == null) {
+            throw new RuntimeException("Content is required");
+        }
+        try {
+            return store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // UTF-8 text, streamed to the blob store without being held in memory beyond the indexed prefix
+    public StoredContent store(InputStream content) throws IOException {
+        PrefixCapture capture = new PrefixCapture(content, SEARCH_BYTES);
+        BlobRef blob = blobStore.put(capture);
+        String text = capture.text();
+        return new StoredContent(blob.hash(), blob.size(), preview(text), text);
+    }
+
+    public SubmissionContentRef getContentRef(Long submissionId) {
+        return submissionRepository.findContentRefById(submissionId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+    }
+
+    private static String preview(String text) {
+        String collapsed = text.strip().replaceAll("\\s+", " ");
+        if (collapsed.length() <= PREVIEW_CHARS) {
+            return collapsed;
+        }
+        int end = PREVIEW_CHARS;
+        if (Character.isHighSurrogate(collapsed.charAt(end - 1))) end--;
+        return collapsed.substring(0, end) + "…";
+    }
+
+    // passes the stream through unchanged while keeping a copy of its first `limit` bytes
+    private static final class PrefixCapture extends FilterInputStream {
+
+        private final ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+        private final int limit;
+
+        PrefixCapture(InputStream in, int limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0 && prefix.size() < limit) prefix.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0 && prefix.size() < limit) {
+                prefix.write(buffer, offset, Math.min(n, limit - prefix.size()));
+            }
+            return n;
+        }
+
+        // PostgreSQL text cannot hold NUL; a multi-byte character cut at the limit is dropped
+        String text() {
+            try {
+                String text = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                        .decode(ByteBuffer.wrap(prefix.toByteArray()))
+                        .toString()
+                        .replace("\u0000", "");
+                if (prefix.size() >= limit && text.endsWith("\uFFFD")) {
+                    text = text.substring(0, text.length() - 1);
+                }
+                return text;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
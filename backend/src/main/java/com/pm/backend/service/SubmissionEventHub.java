@@ -0,0 +1,172 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of {@link SubmissionEvent}s to Server-Sent Events subscribers.
+ * <p>
+ * An idle subscriber is just an async {@link SseEmitter} plus a small bounded buffer; no thread is parked on it.
+ * Publishing only enqueues, and a virtual thread is started per subscriber while it has something to send.
+ * A subscriber whose buffer overflows is too slow to keep up and is disconnected; EventSource clients reconnect
+ * on their own and re-read the list they were showing.
+ */
+@Slf4j
+@Service
+public class SubmissionEventHub {
+
+    // queued in place of an event to make the drainer send a keep-alive comment
+    private static final Delivery PING = new Delivery(0L, null);
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+    private final long timeoutMillis;
+    private final int bufferSize;
+
+    public SubmissionEventHub(@Value("${lms.events.timeout:30m}") Duration timeout,
+                              @Value("${lms.events.buffer-size:64}") int bufferSize) {
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter subscribeToCourse(Long courseId) {
+        return subscribe(courseTopic(courseId), new SseEmitter(timeoutMillis));
+    }
+
+    public SseEmitter subscribeToAssignment(Long assignmentId) {
+        return subscribe(assignmentTopic(assignmentId), new SseEmitter(timeoutMillis));
+    }
+
+    public int subscriberCount() {
+        return topics.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // AFTER_COMMIT so subscribers never see a write that rolled back; fallbackExecution covers
+    // publishers without a transaction (the async ingestion drainer publishes after its own commit)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionEvent(SubmissionEvent event) {
+        Delivery delivery = new Delivery(sequence.incrementAndGet(), event);
+        publish(courseTopic(event.courseId()), delivery);
+        publish(assignmentTopic(event.assignmentId()), delivery);
+    }
+
+    // keeps proxies from closing idle streams and flushes out connections that died silently
+    @Scheduled(fixedDelayString = "${lms.events.heartbeat:30s}")
+    public void heartbeat() {
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(PING)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    // package-private so tests can subscribe an emitter that records or withholds what it is sent
+    SseEmitter subscribe(String topic, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(topic, emitter, new ArrayBlockingQueue<>(bufferSize));
+        topics.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    private void publish(String topic, Delivery delivery) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(s -> s.offer(delivery));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        topics.computeIfPresent(subscriber.topic, (t, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    static String courseTopic(Long courseId) {
+        return "course:" + courseId;
+    }
+
+    static String assignmentTopic(Long assignmentId) {
+        return "assignment:" + assignmentId;
+    }
+
+    private record Delivery(long id, SubmissionEvent event) {
+    }
+
+    private final class Subscriber {
+
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Delivery> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(String topic, SseEmitter emitter, BlockingQueue<Delivery> buffer) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        void offer(Delivery delivery) {
+            if (!buffer.offer(delivery)) {
+                log.debug("Evicting slow SSE subscriber on {}", topic);
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    Delivery delivery;
+                    while ((delivery = buffer.poll()) != null) {
+                        if (delivery == PING) {
+                            emitter.send(SseEmitter.event().comment("ping"));
+                        } else {
+                            emitter.send(SseEmitter.event()
+                                    .id(Long.toString(delivery.id()))
+                                    .name(delivery.event().type().name())
+                                    .data(delivery.event(), MediaType.APPLICATION_JSON));
+                        }
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // client went away; the emitter callbacks unregister it
+                    remove(this);
+                    buffer.clear();
+                    return;
+                } finally {
+                    draining.set(false);
+                }
+                // an offer may have slipped in between the last poll and releasing the flag
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.pm.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pm.backend.dto.IngestStatus;
+import com.pm.backend.dto.OutboxEvent;
+import com.pm.backend.dto.SubmissionEvent;
+import com.pm.backend.entity.SubmissionStatus;
+import com.pm.backend.repository.OutboxRepository;
+import com.pm.backend.repository.SubmissionPartitionRepository;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.service.SubmissionContentService.StoredContent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Optional asynchronous submit path (lms.submissions.ingest.mode=async).
+ * Requests are validated, parked in a bounded in-process queue and acknowledged immediately; a single
+ * drainer thread writes them to PostgreSQL as JDBC batches of the same upsert the synchronous path uses.
+ * When the queue is full the request is refused so the caller can back off instead of piling up.
+ */
+@Slf4j
+@Service
+public class SubmissionIngestService {
+
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final AssignmentService assignmentService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final BlockingQueue<PendingSubmission> queue;
+    private final Cache<String, IngestStatus> statuses;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public SubmissionIngestService(AssignmentService assignmentService,
+                                   NamedParameterJdbcTemplate jdbcTemplate,
+                                   OutboxRepository outboxRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${lms.submissions.ingest.mode:sync}") String mode,
+                                   @Value("${lms.submissions.ingest.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${lms.submissions.ingest.batch-size:200}") int batchSize,
+                                   @Value("${lms.submissions.ingest.max-retries:8}") int maxRetries,
+                                   @Value("${lms.submissions.ingest.retry-backoff:100ms}") Duration retryBackoff,
+                                   @Value("${lms.submissions.ingest.status-ttl:15m}") Duration statusTtl,
+                                   @Value("${lms.submissions.ingest.status-max-entries:200000}") long statusMaxEntries) {
+        this.assignmentService = assignmentService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = "async".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // bounded by time and by size: the size bound is the peak submit rate times the TTL, so it only evicts early
+        // when accepts run above that rate for the whole window, and never lets the heap grow with the spike
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(statusMaxEntries)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // empty when the queue is full
+    // the body is already in the blob store, so queued entries hold only its hash, preview and index text
+    public Optional<IngestStatus> enqueue(Long studentId, Long assignmentId, StoredContent content,
+                                          String idempotencyKey) {
+        assignmentService.getAssignmentById(assignmentId);
+
+        IngestStatus status = new IngestStatus(UUID.randomUUID().toString(), IngestStatus.State.QUEUED,
+                assignmentId, studentId, null);
+        PendingSubmission pending = new PendingSubmission(status.trackingId(), assignmentId, studentId, content,
+                LocalDateTime.now(), idempotencyKey);
+
+        statuses.put(status.trackingId(), status);
+        if (!queue.offer(pending)) {
+            statuses.invalidate(status.trackingId());
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<IngestStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        drainer = Thread.ofPlatform().name("submission-ingest").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (drainer == null) return;
+        running = false;
+        drainer.interrupt();
+        drainer.join(Duration.ofSeconds(30));
+    }
+
+    private void drainLoop() {
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running) {
+                    batch.add(queue.take());
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                if (!batch.isEmpty()) {
+                    persist(batch);
+                }
+            } catch (InterruptedException e) {
+                // shutdown: loop once more to flush what is still queued
+            } catch (RuntimeException e) {
+                log.error("Submission ingest batch failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<PendingSubmission> batch) {
+        try {
+            List<PendingSubmission> written = writeWithRetry(batch);
+            batch.forEach(p -> markDone(p, IngestStatus.State.PERSISTED, null));
+            written.forEach(this::publishSubmitted);
+        } catch (RuntimeException batchFailure) {
+            if (isTransient(batchFailure)) {
+                // the database stayed unavailable through every retry; splitting the batch would not help
+                String error = NestedExceptionUtils.getMostSpecificCause(batchFailure).getMessage();
+                batch.forEach(p -> markDone(p, IngestStatus.State.FAILED, error));
+                return;
+            }
+            // one bad row (e.g. unknown student) aborts the whole batch; retry row by row to isolate it
+            for (PendingSubmission p : batch) {
+                try {
+                    List<PendingSubmission> written = writeWithRetry(List.of(p));
+                    markDone(p, IngestStatus.State.PERSISTED, null);
+                    written.forEach(this::publishSubmitted);
+                } catch (DataIntegrityViolationException e) {
+                    markDone(p, IngestStatus.State.FAILED, SubmissionPartitionRepository.isOutsideEveryPartition(e)
+                            ? SubmissionService.ARCHIVED : "Assignment or student not found");
+                } catch (RuntimeException e) {
+                    markDone(p, IngestStatus.State.FAILED, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    // these submissions were already acknowledged with 202, so a lost connection, an exhausted pool or a lock
+    // conflict is retried with exponential backoff before anything is marked FAILED
+    private List<PendingSubmission> writeWithRetry(List<PendingSubmission> batch) {
+        Duration delay = retryBackoff;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(tx -> write(batch));
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries || !isTransient(e)) throw e;
+                log.warn("Submission ingest write failed, retry {} of {} in {}: {}", attempt + 1, maxRetries, delay,
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    // shutting down: keep retrying without waiting so the queue can still be flushed
+                }
+                delay = delay.multipliedBy(2);
+                if (delay.compareTo(MAX_RETRY_BACKOFF) > 0) delay = MAX_RETRY_BACKOFF;
+            }
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // the upserts and their outbox events commit together. Returns the submissions that wrote a row: a replay of
+    // an already claimed idempotency key writes none (count 0) and gets no event
+    private List<PendingSubmission> write(List<PendingSubmission> batch) {
+        int[] counts = jdbcTemplate.batchUpdate(SubmissionRepository.UPSERT_SQL,
+                batch.stream().map(PendingSubmission::toParameters).toArray(SqlParameterSource[]::new));
+        List<PendingSubmission> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO (-2) is a write whose count the driver did not report
+            if (counts[i] != 0) written.add(batch.get(i));
+        }
+        if (!written.isEmpty()) {
+            outboxRepository.recordSubmissions(OutboxEvent.SUBMISSION_SUBMITTED,
+                    written.stream().map(PendingSubmission::assignmentId).toArray(Long[]::new),
+                    written.stream().map(PendingSubmission::studentId).toArray(Long[]::new));
+        }
+        return written;
+    }
+
+    private void markDone(PendingSubmission pending, IngestStatus.State state, String error) {
+        statuses.asMap().computeIfPresent(pending.trackingId(), (id, status) -> status.withState(state, error));
+    }
+
+    // already committed here, so the hub delivers it straight away; the row id is not known on this path
+    private void publishSubmitted(PendingSubmission pending) {
+        Long courseId = assignmentService.getAssignmentById(pending.assignmentId()).courseId();
+        eventPublisher.publishEvent(new SubmissionEvent(SubmissionEvent.Type.SUBMITTED, null,
+                pending.assignmentId(), courseId, pending.studentId(), SubmissionStatus.SUBMITTED, null,
+                pending.submittedAt()));
+    }
+
+    private record PendingSubmission(String trackingId, Long assignmentId, Long studentId, StoredContent content,
+                                     LocalDateTime submittedAt, String idempotencyKey) {
+
+        SqlParameterSource toParameters() {
+            return new MapSqlParameterSource()
+                    .addValue("assignmentId", assignmentId)
+                    .addValue("studentId", studentId)
+                    .addValue("contentHash", content.hash())
+                    .addValue("contentSize", content.size())
+                    .addValue("contentPreview", content.preview())
+                    .addValue("searchText", content.searchText())
+                    .addValue("submittedAt", submittedAt)
+                    .addValue("idempotencyKey", idempotencyKey);
+        }
+    }
+}
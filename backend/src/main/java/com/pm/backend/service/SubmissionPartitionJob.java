@@ -0,0 +1,120 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.PartitionMaintenanceResult;
+import com.pm.backend.dto.SubmissionPartition;
+import com.pm.backend.repository.SubmissionPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the partitions of submissions (ranges of assignment_id) ahead of use and archives cold ones.
+ * <p>
+ * A submission for an assignment outside every range cannot be stored, so the job always keeps {@code ahead}
+ * ranges of {@code width} ids beyond the highest assignment id handed out; a run creating them is serialized
+ * across instances by an advisory lock. A fully allocated range whose assignments were all due more than
+ * archive-after ago is detached CONCURRENTLY, which does not block submissions, and moved to the lms_archive
+ * schema: its rows leave every index and vacuum of the live table but stay queryable. A run that stops between
+ * the two steps is finished by the next one.
+ */
+@Slf4j
+@Component
+public class SubmissionPartitionJob {
+
+    private final SubmissionPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long width;
+    private final int ahead;
+    private final Duration archiveAfter;
+
+    public SubmissionPartitionJob(SubmissionPartitionRepository partitionRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${lms.partitions.enabled:true}") boolean enabled,
+                                  @Value("${lms.partitions.width:10000}") long width,
+                                  @Value("${lms.partitions.ahead:2}") int ahead,
+                                  @Value("${lms.partitions.archive-after:730d}") Duration archiveAfter) {
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.width = width;
+        this.ahead = ahead;
+        this.archiveAfter = archiveAfter;
+    }
+
+    @Scheduled(initialDelayString = "${lms.partitions.initial-delay:0s}",
+            fixedDelayString = "${lms.partitions.interval:1h}")
+    public void scheduledMaintenance() {
+        if (enabled) maintain();
+    }
+
+    public PartitionMaintenanceResult maintain() {
+        long started = System.currentTimeMillis();
+        List<String> created = createFuturePartitions();
+        List<String> archived = archiveColdPartitions();
+        return new PartitionMaintenanceResult(created, archived, System.currentTimeMillis() - started);
+    }
+
+    public List<SubmissionPartition> getPartitions() {
+        return partitionRepository.findPartitions();
+    }
+
+    // also called by bulk loaders that create assignments faster than the schedule runs
+    public List<String> createFuturePartitions() {
+        List<String> created = transactionTemplate.execute(tx -> {
+            if (!partitionRepository.tryLock()) return List.of();
+            List<SubmissionPartition> partitions = partitionRepository.findPartitions();
+            long next = partitions.isEmpty() ? 1 : partitions.getLast().toAssignmentId();
+            long needed = partitionRepository.findAssignmentHighWater() + 1 + ahead * width;
+            List<String> names = new ArrayList<>();
+            for (; next < needed; next += width) {
+                names.add(partitionRepository.createPartition(next, next + width));
+            }
+            return names;
+        });
+        if (created != null && !created.isEmpty()) {
+            log.info("Created submission partitions {}", created);
+        }
+        return created == null ? List.of() : created;
+    }
+
+    List<String> archiveColdPartitions() {
+        if (archiveAfter.isZero()) return List.of();
+        for (String pending : partitionRepository.findPendingDetaches()) {
+            partitionRepository.finalizeDetach(pending);
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        long highWater = partitionRepository.findAssignmentHighWater();
+        for (SubmissionPartition partition : partitionRepository.findPartitions()) {
+            // oldest first, stopping at the first range that is still in use or can still receive new assignments
+            if (partition.toAssignmentId() > highWater + 1) break;
+            long fromId = partition.fromAssignmentId() == null ? Long.MIN_VALUE : partition.fromAssignmentId();
+            if (partitionRepository.hasRecentAssignments(fromId, partition.toAssignmentId(), cutoff)) break;
+            try {
+                partitionRepository.detachConcurrently(partition.name());
+            } catch (DataAccessException e) {
+                // another instance got there first; whichever detached it archives it below or on its next run
+                log.warn("Could not detach submission partition {}", partition.name(), e);
+                break;
+            }
+        }
+
+        List<String> archived = new ArrayList<>();
+        for (String detached : partitionRepository.findDetached()) {
+            transactionTemplate.executeWithoutResult(tx -> partitionRepository.archive(detached));
+            archived.add(detached);
+            log.info("Archived submission partition {} to lms_archive", detached);
+        }
+        return archived;
+    }
+}
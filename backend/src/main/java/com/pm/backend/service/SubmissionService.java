@@ -1,74 +1,186 @@
 package com.pm.backend.service;
 
-import com.pm.backend.entity.Assignment;
+import com.pm.backend.dto.AssignmentView;
+import com.pm.backend.dto.GradeEntry;
+import com.pm.backend.dto.GradeResult;
+import com.pm.backend.dto.OutboxEvent;
+import com.pm.backend.dto.SubmissionEvent;
+import com.pm.backend.dto.SubmissionPage;
+import com.pm.backend.dto.SubmissionView;
 import com.pm.backend.entity.Submission;
 import com.pm.backend.entity.SubmissionStatus;
-import com.pm.backend.entity.User;
-import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.OutboxRepository;
+import com.pm.backend.repository.SubmissionPartitionRepository;
 import com.pm.backend.repository.SubmissionRepository;
-import com.pm.backend.repository.UserRepository;
+import com.pm.backend.service.SubmissionContentService.StoredContent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SubmissionService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    // its submissions were archived with their partition (SubmissionPartitionJob), which takes no new rows
+    static final String ARCHIVED = "Assignment is archived and no longer accepts submissions";
+
     private final SubmissionRepository submissionRepository;
-    private final AssignmentRepository assignmentRepository;
-    private final UserRepository userRepository;
+    private final OutboxRepository outboxRepository;
+    private final SubmissionContentService contentService;
+    private final AssignmentService assignmentService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public SubmissionView submitAssignment(Long studentId, Long assignmentId, String content) {
+        return submitAssignment(studentId, assignmentId, content, null);
+    }
 
     @Transactional
-    public Submission submitAssignment(Long studentId, Long assignmentId, String content) {
-        // find assignment
-        Assignment assignment = assignmentRepository.findById(assignmentId)
-                .orElseThrow(() -> new RuntimeException("Assignment not found"));
-
-        // find student
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-
-        // check for existing submission
-        Optional<Submission> existing = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, studentId);
-
-        Submission submission;
-        if (existing.isPresent()) {
-            submission = existing.get();
-            submission.setContent(content);
-            submission.setSubmittedAt(LocalDateTime.now());
-            submission.setStatus(SubmissionStatus.SUBMITTED);
-        } else {
-            submission = Submission.builder()
-                    .assignment(assignment)
-                    .student(student)
-                    .content(content)
-                    .status(SubmissionStatus.SUBMITTED)
-                    .submittedAt(LocalDateTime.now())
-                    .build();
+    public SubmissionView submitAssignment(Long studentId, Long assignmentId, String content, String idempotencyKey) {
+        return submitAssignment(studentId, assignmentId, contentService.store(content), idempotencyKey);
+    }
+
+    // one upsert instead of find-then-insert: the unique (assignment_id, student_id) index serializes
+    // concurrent submits, and a replay carrying an already used idempotency key leaves the row untouched.
+    // Such a replay writes no row, so it records and publishes nothing either; it just answers the current row.
+    // The body is already in the blob store; the controller stores uploads before this transaction opens,
+    // so no pooled connection waits on upload I/O.
+    @Transactional
+    public SubmissionView submitAssignment(Long studentId, Long assignmentId, StoredContent content,
+                                           String idempotencyKey) {
+        int written;
+        try {
+            written = submissionRepository.upsertSubmission(assignmentId, studentId, content.hash(), content.size(),
+                    content.preview(), content.searchText(), LocalDateTime.now(), idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            if (SubmissionPartitionRepository.isOutsideEveryPartition(e)) {
+                throw new RuntimeException(ARCHIVED, e);
+            }
+            // foreign key violation: no such assignment or student
+            throw new RuntimeException("Assignment or student not found", e);
+        }
+        SubmissionView submission = submissionRepository.findViewByAssignmentIdAndStudentId(assignmentId, studentId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+        if (written > 0) {
+            outboxRepository.recordSubmissions(OutboxEvent.SUBMISSION_SUBMITTED, List.of(submission.id()));
+            publish(SubmissionEvent.Type.SUBMITTED, submission);
         }
-        return submissionRepository.save(submission);
+        return submission;
     }
 
 
+    @Transactional(readOnly = true)
     public List<Submission> getSubmissionsByAssignment(Long assignmentId) {
         return submissionRepository.findByAssignmentId(assignmentId);
     }
 
 
+    @Transactional(readOnly = true)
+    public SubmissionView getSubmission(Long assignmentId, Long studentId) {
+        return submissionRepository.findViewByAssignmentIdAndStudentId(assignmentId, studentId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+    }
+
+
+    @Transactional(readOnly = true)
+    public SubmissionPage getSubmissionPage(Long assignmentId, Long cursor, int limit, SubmissionStatus status,
+                                            LocalDateTime submittedFrom, LocalDateTime submittedTo) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = cursor == null ? 0L : cursor;
+
+        // fetch one extra row to know whether another page exists
+        List<SubmissionView> rows = submissionRepository.findPageByAssignmentId(
+                assignmentId, afterId, status, submittedFrom, submittedTo, Limit.of(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new SubmissionPage(rows, null);
+        }
+        List<SubmissionView> items = rows.subList(0, pageSize);
+        return new SubmissionPage(items, items.get(pageSize - 1).id());
+    }
+
+
     @Transactional
-    public Submission gradeSubmission(Long submissionId, Integer grade, String feedback) {
+    public SubmissionView gradeSubmission(Long submissionId, Integer grade, String feedback) {
         Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
+        // the same rules as gradeSubmissions
+        if (grade == null) {
+            throw new RuntimeException("Grade is required");
+        }
+        int maxScore = assignmentService.getAssignmentById(submission.getAssignment().getId()).maxScore();
+        if (grade < 0 || grade > maxScore) {
+            throw new RuntimeException("Grade must be between 0 and " + maxScore);
+        }
 
         submission.setGrade(grade);
         submission.setFeedback(feedback);
         submission.setStatus(SubmissionStatus.GRADED);
 
-        return submissionRepository.save(submission);
+        // flushed first: the outbox copies the row as PostgreSQL sees it
+        SubmissionView view = SubmissionView.from(submissionRepository.saveAndFlush(submission));
+        outboxRepository.recordSubmissions(OutboxEvent.SUBMISSION_GRADED, List.of(view.id()));
+        publish(SubmissionEvent.Type.GRADED, view);
+        return view;
+    }
+
+
+    // applies every entry in one transaction; the dirty entities are flushed as JDBC batch updates
+    // (hibernate.jdbc.batch_size), so 1,000 grades cost one select per chunk plus a handful of batched round trips,
+    // and one INSERT ... SELECT writes their outbox events
+    @Transactional
+    public List<GradeResult> gradeSubmissions(Long assignmentId, List<GradeEntry> entries) {
+        AssignmentView assignment = assignmentService.getAssignmentById(assignmentId);
+        Set<Long> ids = entries.stream()
+                .map(GradeEntry::submissionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Submission> submissions = submissionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Submission::getId, Function.identity()));
+
+        List<GradeResult> results = new ArrayList<>(entries.size());
+        Set<Long> seen = new HashSet<>();
+        for (GradeEntry entry : entries) {
+            Long id = entry.submissionId();
+            Submission submission = id == null ? null : submissions.get(id);
+            if (submission == null) {
+                results.add(GradeResult.failed(id, "Submission not found"));
+            } else if (!submission.getAssignment().getId().equals(assignmentId)) {
+                results.add(GradeResult.failed(id, "Submission does not belong to this assignment"));
+            } else if (entry.grade() == null) {
+                results.add(GradeResult.failed(id, "Grade is required"));
+            } else if (entry.grade() < 0 || entry.grade() > assignment.maxScore()) {
+                results.add(GradeResult.failed(id, "Grade must be between 0 and " + assignment.maxScore()));
+            } else if (!seen.add(id)) {
+                results.add(GradeResult.failed(id, "Duplicate entry"));
+            } else {
+                submission.setGrade(entry.grade());
+                submission.setFeedback(entry.feedback());
+                submission.setStatus(SubmissionStatus.GRADED);
+                results.add(GradeResult.ok(id));
+            }
+        }
+        if (!seen.isEmpty()) {
+            submissionRepository.flush();
+            outboxRepository.recordSubmissions(OutboxEvent.SUBMISSION_GRADED, seen);
+            eventPublisher.publishEvent(SubmissionEvent.bulkGraded(assignmentId, assignment.courseId()));
+        }
+        return results;
+    }
+
+
+    // delivered by SubmissionEventHub only once the surrounding transaction commits
+    private void publish(SubmissionEvent.Type type, SubmissionView submission) {
+        Long courseId = assignmentService.getAssignmentById(submission.assignmentId()).courseId();
+        eventPublisher.publishEvent(SubmissionEvent.of(type, submission, courseId));
     }
 }
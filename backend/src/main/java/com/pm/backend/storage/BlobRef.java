@@ -0,0 +1,5 @@
+package com.pm.backend.storage;
+
+// a stored blob: lowercase hex SHA-256 of the bytes and their length
+public record BlobRef(String hash, long size) {
+}
@@ -0,0 +1,40 @@
+package com.pm.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Content-addressed storage for submission bodies and attachments. Blobs are immutable and keyed by the
+ * SHA-256 of their bytes, so storing the same bytes twice keeps one copy and a hash can be cached forever.
+ */
+public interface BlobStore {
+
+    // streams the input into the store, hashing on the way; returns the existing blob if the bytes are known,
+    // marking it as written now so garbage collection leaves it alone until the new reference has committed
+    BlobRef put(InputStream content) throws IOException;
+
+    boolean exists(String hash);
+
+    long size(String hash) throws IOException;
+
+    // copies the blob to the target channel; file-to-socket copies stay in the kernel where the OS supports it
+    long transferTo(String hash, WritableByteChannel target) throws IOException;
+
+    InputStream open(String hash) throws IOException;
+
+    // hashes of the blobs last written before the cutoff, for garbage collection
+    void forEachWrittenBefore(Instant cutoff, Consumer<String> action) throws IOException;
+
+    // false when the blob is gone or was written again after the cutoff and so may have gained a reference
+    boolean deleteIfWrittenBefore(String hash, Instant cutoff) throws IOException;
+
+    // local file backing the blob, for stores that have one (lets the servlet container use sendfile)
+    default Optional<Path> localPath(String hash) {
+        return Optional.empty();
+    }
+}
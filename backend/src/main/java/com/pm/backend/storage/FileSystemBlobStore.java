@@ -0,0 +1,158 @@
+package com.pm.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local-filesystem {@link BlobStore}: {@code <root>/ab/cd/abcd...} for a blob whose SHA-256 starts with abcd.
+ * Uploads go to a temp file in the same directory tree and are renamed into place atomically, so readers never
+ * see a partial blob and two writers of the same bytes simply race to an identical file.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final long CHUNK = 8L * 1024 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+
+    public FileSystemBlobStore(@Value("${lms.blobs.root:data/blobs}") Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = Files.createDirectories(this.root.resolve("incoming"));
+    }
+
+    @Override
+    public BlobRef put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, digest));
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long n;
+                while ((n = target.transferFrom(source, size, CHUNK)) > 0) {
+                    size += n;
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path path = pathOf(hash);
+            if (!touchIfExists(path)) {
+                Files.createDirectories(path.getParent());
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // another upload of the same bytes won the race
+                    touchIfExists(path);
+                }
+            }
+            return new BlobRef(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    @Override
+    public long size(String hash) throws IOException {
+        return Files.size(existing(hash));
+    }
+
+    @Override
+    public long transferTo(String hash, WritableByteChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(existing(hash), StandardOpenOption.READ)) {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(existing(hash));
+    }
+
+    @Override
+    public void forEachWrittenBefore(Instant cutoff, Consumer<String> action) throws IOException {
+        try (Stream<Path> files = Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                && HASH.matcher(path.getFileName().toString()).matches()
+                && attributes.lastModifiedTime().toInstant().isBefore(cutoff))) {
+            files.forEach(path -> action.accept(path.getFileName().toString()));
+        }
+    }
+
+    @Override
+    public boolean deleteIfWrittenBefore(String hash, Instant cutoff) throws IOException {
+        Path path = pathOf(hash);
+        try {
+            if (!Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) return false;
+            return Files.deleteIfExists(path);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String hash) {
+        Path path = pathOf(hash);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Path existing(String hash) throws NoSuchFileException {
+        Path path = pathOf(hash);
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException("Blob " + hash + " not found");
+        }
+        return path;
+    }
+
+    private Path pathOf(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    // a known blob counts as written again, which keeps garbage collection away from it for the grace period
+    private static boolean touchIfExists(Path path) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
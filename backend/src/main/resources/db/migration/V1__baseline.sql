@@ -0,0 +1,211 @@
+-- Schema as of the switch from hibernate ddl-auto=update to migrations: the tables Hibernate generated from the
+-- entities plus everything schema.sql added on top. Constraint names are the ones Hibernate generated, so databases
+-- created before migrations (baselined at version 1, see spring.flyway.baseline-on-migrate) and new ones match.
+
+CREATE TABLE users (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at timestamp(6),
+    full_name  varchar(255) NOT NULL,
+    password   varchar(255) NOT NULL,
+    role       varchar(255) NOT NULL,
+    username   varchar(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT ukr43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT users_role_check CHECK (role IN ('TEACHER', 'STUDENT'))
+);
+
+CREATE TABLE courses (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at  timestamp(6),
+    description text,
+    invite_code varchar(255),
+    subject     varchar(255),
+    title       varchar(255) NOT NULL,
+    teacher_id  bigint NOT NULL,
+    CONSTRAINT courses_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_courses_invite_code UNIQUE (invite_code),
+    CONSTRAINT fkt4ba5fab1x56tmt4nsypv5lm5 FOREIGN KEY (teacher_id) REFERENCES users (id)
+);
+
+CREATE TABLE assignments (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at  timestamp(6),
+    description text,
+    due_date    timestamp(6),
+    max_score   integer,
+    title       varchar(255) NOT NULL,
+    course_id   bigint NOT NULL,
+    -- set by DeadlineSweeper once the due date has been processed
+    swept_at    timestamp(6),
+    CONSTRAINT assignments_pkey PRIMARY KEY (id),
+    CONSTRAINT fk6p1m72jobsvmrrn4bpj4168mg FOREIGN KEY (course_id) REFERENCES courses (id)
+);
+CREATE INDEX idx_assignments_course_due_date ON assignments (course_id, due_date);
+
+-- lets set-based inserts skip existing rows with ON CONFLICT DO NOTHING; the second index serves roster lookups
+CREATE TABLE enrollments (
+    student_id bigint NOT NULL,
+    course_id  bigint NOT NULL,
+    CONSTRAINT uk_enrollments_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT fk2lha5vwilci2yi3vu5akusx4a FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fkho8mcicp4196ebpltdn9wl6co FOREIGN KEY (course_id) REFERENCES courses (id)
+);
+CREATE INDEX idx_enrollments_course_id ON enrollments (course_id);
+
+CREATE TABLE submissions (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY,
+    content         text,
+    feedback        text,
+    grade           integer,
+    idempotency_key varchar(255),
+    status          varchar(255),
+    submitted_at    timestamp(6),
+    assignment_id   bigint NOT NULL,
+    student_id      bigint NOT NULL,
+    content_hash    varchar(64),
+    content_preview varchar(300),
+    content_size    bigint,
+    late            boolean NOT NULL DEFAULT false,
+    -- bodies live in the blob store, so the vector is written by the submit upsert rather than generated
+    search_vector   tsvector,
+    CONSTRAINT submissions_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_submissions_assignment_student UNIQUE (assignment_id, student_id),
+    CONSTRAINT submissions_status_check CHECK (status IN ('PENDING', 'SUBMITTED', 'GRADED')),
+    CONSTRAINT fkrirbb44savy2g7nws0hoxs949 FOREIGN KEY (assignment_id) REFERENCES assignments (id),
+    CONSTRAINT fk3p6y8mnhpwusdgqrdl4hcl72m FOREIGN KEY (student_id) REFERENCES users (id)
+);
+-- keyset pages of an assignment's submissions, without and with a status filter
+CREATE INDEX idx_submissions_assignment_id ON submissions (assignment_id, id);
+CREATE INDEX idx_submissions_assignment_status ON submissions (assignment_id, status, id);
+CREATE INDEX idx_submissions_student_id ON submissions (student_id);
+
+-- full-text search: stored generated tsvectors are recomputed by PostgreSQL on every insert/update
+ALTER TABLE courses ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(subject, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) STORED;
+CREATE INDEX idx_courses_search ON courses USING gin (search_vector);
+
+ALTER TABLE assignments ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) STORED;
+CREATE INDEX idx_assignments_search ON assignments USING gin (search_vector);
+
+CREATE INDEX idx_submissions_search ON submissions USING gin (search_vector);
+
+-- rows whose body is still inline, for LegacyContentMigrator; shrinks to nothing once they are moved
+CREATE INDEX idx_submissions_legacy_content ON submissions (id) WHERE content IS NOT NULL;
+
+-- past-due assignments DeadlineSweeper has not processed yet; shrinks back as it catches up
+CREATE INDEX idx_assignments_unswept ON assignments (due_date) WHERE swept_at IS NULL;
+
+-- transactional outbox: written in the same transaction as the change it describes, read by OutboxRelay.
+-- position is assigned by the relay once the writing transaction is known to be committed (see OutboxRepository)
+CREATE TABLE outbox_events (
+    id             bigserial PRIMARY KEY,
+    txid           xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    position       bigint UNIQUE,
+    event_type     varchar(64) NOT NULL,
+    aggregate_type varchar(32) NOT NULL,
+    aggregate_id   bigint NOT NULL,
+    course_id      bigint,
+    payload        jsonb NOT NULL,
+    created_at     timestamp NOT NULL DEFAULT now()
+);
+CREATE INDEX idx_outbox_events_unsequenced ON outbox_events (txid, id) WHERE position IS NULL;
+CREATE SEQUENCE outbox_position_seq;
+
+-- last delivered position per consumer (relay sinks and pull clients of /api/outbox/events)
+CREATE TABLE outbox_consumer_offsets (
+    consumer   varchar(100) PRIMARY KEY,
+    position   bigint NOT NULL DEFAULT 0,
+    updated_at timestamp NOT NULL DEFAULT now()
+);
+
+-- per-assignment progress counters, kept current by the submissions triggers below and checked by
+-- ProgressRepairJob. Every connection adds to its own stripe (backend pid mod 8), so concurrent submits and
+-- grades to one assignment do not queue on a single counter row; readers sum the stripes.
+CREATE TABLE assignment_progress (
+    course_id     bigint NOT NULL,
+    assignment_id bigint NOT NULL,
+    stripe        smallint NOT NULL,
+    pending       bigint NOT NULL DEFAULT 0,
+    submitted     bigint NOT NULL DEFAULT 0,
+    graded        bigint NOT NULL DEFAULT 0,
+    late          bigint NOT NULL DEFAULT 0,
+    grade_sum     bigint NOT NULL DEFAULT 0,
+    grade_count   bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (course_id, assignment_id, stripe)
+);
+
+-- PL/pgSQL rather than SQL functions so the statement plans are cached per connection
+CREATE FUNCTION lms_progress_add(p_assignment_id bigint, p_pending integer, p_submitted integer,
+                                            p_graded integer, p_late integer, p_grade_sum bigint,
+                                            p_grade_count integer) RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    IF p_pending = 0 AND p_submitted = 0 AND p_graded = 0 AND p_late = 0 AND p_grade_sum = 0
+            AND p_grade_count = 0 THEN
+        RETURN;
+    END IF;
+    INSERT INTO assignment_progress AS p
+           (course_id, assignment_id, stripe, pending, submitted, graded, late, grade_sum, grade_count)
+    SELECT a.course_id, a.id, pg_backend_pid() % 8,
+           p_pending, p_submitted, p_graded, p_late, p_grade_sum, p_grade_count
+    FROM assignments a
+    WHERE a.id = p_assignment_id
+    ON CONFLICT (course_id, assignment_id, stripe) DO UPDATE SET
+        pending = p.pending + EXCLUDED.pending,
+        submitted = p.submitted + EXCLUDED.submitted,
+        graded = p.graded + EXCLUDED.graded,
+        late = p.late + EXCLUDED.late,
+        grade_sum = p.grade_sum + EXCLUDED.grade_sum,
+        grade_count = p.grade_count + EXCLUDED.grade_count;
+END
+$$;
+
+-- an update within one assignment adds the difference between the new and the old row in one upsert
+CREATE FUNCTION lms_progress_on_change() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.assignment_id = NEW.assignment_id THEN
+        PERFORM lms_progress_add(NEW.assignment_id,
+                (NEW.status IS NOT DISTINCT FROM 'PENDING')::int - (OLD.status IS NOT DISTINCT FROM 'PENDING')::int,
+                (NEW.status IS NOT DISTINCT FROM 'SUBMITTED')::int - (OLD.status IS NOT DISTINCT FROM 'SUBMITTED')::int,
+                (NEW.status IS NOT DISTINCT FROM 'GRADED')::int - (OLD.status IS NOT DISTINCT FROM 'GRADED')::int,
+                NEW.late::int - OLD.late::int,
+                coalesce(NEW.grade, 0)::bigint - coalesce(OLD.grade, 0),
+                (NEW.grade IS NOT NULL)::int - (OLD.grade IS NOT NULL)::int);
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM lms_progress_add(OLD.assignment_id,
+                -(OLD.status IS NOT DISTINCT FROM 'PENDING')::int,
+                -(OLD.status IS NOT DISTINCT FROM 'SUBMITTED')::int,
+                -(OLD.status IS NOT DISTINCT FROM 'GRADED')::int,
+                -OLD.late::int, -coalesce(OLD.grade, 0)::bigint, -(OLD.grade IS NOT NULL)::int);
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM lms_progress_add(NEW.assignment_id,
+                (NEW.status IS NOT DISTINCT FROM 'PENDING')::int,
+                (NEW.status IS NOT DISTINCT FROM 'SUBMITTED')::int,
+                (NEW.status IS NOT DISTINCT FROM 'GRADED')::int,
+                NEW.late::int, coalesce(NEW.grade, 0)::bigint, (NEW.grade IS NOT NULL)::int);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER submissions_progress_insert_delete
+    AFTER INSERT OR DELETE ON submissions
+    FOR EACH ROW EXECUTE FUNCTION lms_progress_on_change();
+
+-- resubmits, body migration and the like change none of the counted columns and skip the trigger
+CREATE TRIGGER submissions_progress_update
+    AFTER UPDATE OF assignment_id, status, grade, late ON submissions
+    FOR EACH ROW
+    WHEN (OLD.assignment_id IS DISTINCT FROM NEW.assignment_id OR OLD.status IS DISTINCT FROM NEW.status
+          OR OLD.grade IS DISTINCT FROM NEW.grade OR OLD.late IS DISTINCT FROM NEW.late)
+    EXECUTE FUNCTION lms_progress_on_change();
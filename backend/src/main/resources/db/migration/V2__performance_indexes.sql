@@ -0,0 +1,10 @@
+-- Indexes the repository queries were missing. CONCURRENTLY so existing tables stay writable while they build;
+-- Flyway runs a script made only of such statements outside a transaction.
+
+-- CourseRepository.findByTeacherId / findViewsByTeacherId (ordered by id) and the teacher side of search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_courses_teacher_id ON courses (teacher_id, id);
+
+-- course rosters (gradebook, exports, deadline sweep, search): covering, so they are index-only scans.
+-- Replaces the single-column index, whose lookups had to visit the heap for student_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enrollments_course_student ON enrollments (course_id, student_id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_enrollments_course_id;
@@ -0,0 +1,8 @@
+-- Indexes V4 needs on the current submissions table, built without blocking writes so that V4 itself only
+-- renames and attaches. Flyway runs a script made only of CONCURRENTLY statements outside a transaction.
+
+-- becomes its primary key: every unique index of a partitioned table has to contain the partition key
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS submissions_legacy_pkey ON submissions (assignment_id, id);
+
+-- lookups by id alone (findById, grading, content); takes over from the old primary key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS submissions_legacy_id_idx ON submissions (id);
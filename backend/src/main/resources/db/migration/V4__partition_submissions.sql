@@ -0,0 +1,88 @@
+-- submissions becomes a table partitioned by ranges of assignment_id. A row never changes partition (its
+-- assignment is fixed), the submit, grade and page queries all filter on assignment_id, and the unique key already
+-- contains it. Assignment ids grow with time, so a range holds the work of the assignments set in one stretch of
+-- time, e.g. a term; SubmissionPartitionJob creates ranges ahead of use and archives those that have gone cold.
+--
+-- The existing table is attached as it is, as submissions_legacy, the partition of every assignment created so far.
+-- Its indexes (V3 built the new ones) are attached to the partitioned indexes, so no rows are copied or reindexed.
+
+LOCK TABLE submissions IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE submissions RENAME TO submissions_legacy;
+DROP TRIGGER submissions_progress_insert_delete ON submissions_legacy;
+DROP TRIGGER submissions_progress_update ON submissions_legacy;
+
+-- index names are per schema: free them for the partitioned indexes
+ALTER TABLE submissions_legacy
+    RENAME CONSTRAINT uk_submissions_assignment_student TO submissions_legacy_assignment_student_key;
+ALTER INDEX idx_submissions_assignment_status RENAME TO submissions_legacy_assignment_status_idx;
+ALTER INDEX idx_submissions_student_id RENAME TO submissions_legacy_student_id_idx;
+ALTER INDEX idx_submissions_search RENAME TO submissions_legacy_search_idx;
+ALTER INDEX idx_submissions_legacy_content RENAME TO submissions_legacy_content_idx;
+-- same columns as the new primary key
+DROP INDEX idx_submissions_assignment_id;
+
+ALTER TABLE submissions_legacy DROP CONSTRAINT submissions_pkey;
+ALTER TABLE submissions_legacy ADD CONSTRAINT submissions_legacy_pkey PRIMARY KEY USING INDEX submissions_legacy_pkey;
+-- ids now come from the partitioned table's identity
+ALTER TABLE submissions_legacy ALTER COLUMN id DROP IDENTITY;
+
+CREATE TABLE submissions (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY,
+    content         text,
+    feedback        text,
+    grade           integer,
+    idempotency_key varchar(255),
+    status          varchar(255),
+    submitted_at    timestamp(6),
+    assignment_id   bigint NOT NULL,
+    student_id      bigint NOT NULL,
+    content_hash    varchar(64),
+    content_preview varchar(300),
+    content_size    bigint,
+    late            boolean NOT NULL DEFAULT false,
+    search_vector   tsvector,
+    -- (assignment_id, id) also serves the keyset pages of an assignment's submissions
+    CONSTRAINT submissions_pkey PRIMARY KEY (assignment_id, id),
+    CONSTRAINT uk_submissions_assignment_student UNIQUE (assignment_id, student_id),
+    CONSTRAINT submissions_status_check CHECK (status IN ('PENDING', 'SUBMITTED', 'GRADED')),
+    CONSTRAINT fkrirbb44savy2g7nws0hoxs949 FOREIGN KEY (assignment_id) REFERENCES assignments (id),
+    CONSTRAINT fk3p6y8mnhpwusdgqrdl4hcl72m FOREIGN KEY (student_id) REFERENCES users (id)
+) PARTITION BY RANGE (assignment_id);
+
+CREATE INDEX idx_submissions_id ON submissions (id);
+CREATE INDEX idx_submissions_assignment_status ON submissions (assignment_id, status, id);
+CREATE INDEX idx_submissions_student_id ON submissions (student_id);
+CREATE INDEX idx_submissions_search ON submissions USING gin (search_vector);
+CREATE INDEX idx_submissions_legacy_content ON submissions (id) WHERE content IS NOT NULL;
+
+-- archived partitions are moved here by SubmissionPartitionJob, still queryable but out of every live query
+CREATE SCHEMA lms_archive;
+
+DO $$
+DECLARE
+    next_assignment bigint := (SELECT greatest(coalesce(max(id), 0),
+                                               coalesce(pg_sequence_last_value(pg_get_serial_sequence('assignments', 'id')::regclass), 0)) + 1
+                               FROM assignments);
+BEGIN
+    EXECUTE format('ALTER TABLE submissions ATTACH PARTITION submissions_legacy FOR VALUES FROM (MINVALUE) TO (%s)',
+                   next_assignment);
+    -- the range for new assignments; the job adds the following ones before they are needed
+    EXECUTE format('CREATE TABLE submissions_from_%1$s PARTITION OF submissions FOR VALUES FROM (%1$s) TO (%2$s)',
+                   next_assignment, next_assignment + 10000);
+    PERFORM setval(pg_get_serial_sequence('submissions', 'id'),
+                   (SELECT coalesce(max(id), 0) + 1 FROM submissions_legacy), false);
+END
+$$;
+
+-- row triggers on a partitioned table apply to every partition, present and future
+CREATE TRIGGER submissions_progress_insert_delete
+    AFTER INSERT OR DELETE ON submissions
+    FOR EACH ROW EXECUTE FUNCTION lms_progress_on_change();
+
+CREATE TRIGGER submissions_progress_update
+    AFTER UPDATE OF assignment_id, status, grade, late ON submissions
+    FOR EACH ROW
+    WHEN (OLD.assignment_id IS DISTINCT FROM NEW.assignment_id OR OLD.status IS DISTINCT FROM NEW.status
+          OR OLD.grade IS DISTINCT FROM NEW.grade OR OLD.late IS DISTINCT FROM NEW.late)
+    EXECUTE FUNCTION lms_progress_on_change();
@@ -0,0 +1,17 @@
+-- Every idempotency key a submit has used, not just the last one stored on the row: a delayed retry of an
+-- older key must stay a no-op after a newer submit has replaced the content. Rows are pruned once past the
+-- retry window (lms.submissions.idempotency-retention); no foreign keys, so they never hold up deletes.
+CREATE TABLE submission_idempotency_keys (
+    assignment_id   bigint       NOT NULL,
+    student_id      bigint       NOT NULL,
+    idempotency_key varchar(255) NOT NULL,
+    created_at      timestamp(6) NOT NULL,
+    CONSTRAINT submission_idempotency_keys_pkey PRIMARY KEY (assignment_id, student_id, idempotency_key)
+);
+
+CREATE INDEX idx_submission_idempotency_keys_created_at ON submission_idempotency_keys (created_at);
+
+INSERT INTO submission_idempotency_keys (assignment_id, student_id, idempotency_key, created_at)
+SELECT assignment_id, student_id, idempotency_key, coalesce(submitted_at, now())
+FROM submissions
+WHERE idempotency_key IS NOT NULL;
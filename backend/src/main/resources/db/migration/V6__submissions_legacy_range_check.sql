@@ -0,0 +1,30 @@
+-- A validated CHECK on submissions_legacy that states its partition range. V4 attached the table with a scan under
+-- ACCESS EXCLUSIVE; with this constraint in place PostgreSQL proves the range from the catalog instead, so
+-- attaching it again (after a detach, or back from lms_archive) skips that scan.
+--
+-- NOT VALID only takes a short lock; VALIDATE then reads the table under a lock that lets writes through. The two
+-- must commit separately for that, so this script runs outside a transaction (see the .conf file next to it).
+-- Nothing happens once the legacy range has been archived.
+
+DO $$
+DECLARE
+    upper_bound bigint := (SELECT (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'TO \(''?(\d+)''?\)'))[1]::bigint
+                           FROM pg_class c
+                           WHERE c.oid = to_regclass('public.submissions_legacy') AND c.relispartition);
+BEGIN
+    IF upper_bound IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'submissions_legacy_assignment_range') THEN
+        EXECUTE format('ALTER TABLE submissions_legacy ADD CONSTRAINT submissions_legacy_assignment_range '
+                       'CHECK (assignment_id < %s) NOT VALID', upper_bound);
+    END IF;
+END
+$$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint
+               WHERE conname = 'submissions_legacy_assignment_range' AND NOT convalidated) THEN
+        ALTER TABLE submissions_legacy VALIDATE CONSTRAINT submissions_legacy_assignment_range;
+    END IF;
+END
+$$;
@@ -1,13 +1,36 @@
 package com.pm.backend;
 
+import com.pm.backend.service.AssignmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @SpringBootTest
 class BackendApplicationTests {
 
+	@Autowired private AssignmentService assignmentService;
+	@Autowired private MeterRegistry meterRegistry;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void serviceMethodsAreTimed() {
+		assertThrows(RuntimeException.class, () -> assignmentService.getAssignmentById(-1L));
+
+		Timer timer = meterRegistry.find("lms.service")
+				.tags("class", AssignmentService.class.getName(), "method", "getAssignmentById",
+						"exception", "RuntimeException")
+				.timer();
+		assertNotNull(timer);
+		assertTrue(timer.count() > 0);
+	}
+
 }
@@ -0,0 +1,66 @@
+package com.pm.backend.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionInterceptorTests {
+
+    // two slots, one of them reserved, and one stream
+    private final AdmissionInterceptor interceptor =
+            new AdmissionInterceptor(2, 0.5, 1, 2, 5, 20, 40, 1000, new SimpleMeterRegistry());
+
+    @Test
+    void streamedBodiesHaveTheirOwnCap() throws Exception {
+        MockHttpServletRequest download = new MockHttpServletRequest();
+        assertTrue(admit(download, "download"));
+        assertFalse(admit(new MockHttpServletRequest(), "download"));
+
+        // the open download takes nothing from ordinary or critical requests
+        assertTrue(admit(new MockHttpServletRequest(), "read"));
+        assertTrue(admit(new MockHttpServletRequest(), "grade"));
+
+        interceptor.afterCompletion(download, new MockHttpServletResponse(), handler("download"), null);
+        assertTrue(admit(new MockHttpServletRequest(), "download"));
+    }
+
+    @Test
+    void ordinaryRequestsLeaveTheReserveToCriticalOnes() throws Exception {
+        assertTrue(admit(new MockHttpServletRequest(), "read"));
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), shed, handler("read")));
+        assertEquals(429, shed.getStatus());
+        assertTrue(admit(new MockHttpServletRequest(), "grade"));
+    }
+
+    private boolean admit(MockHttpServletRequest request, String method) throws Exception {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), handler(method));
+    }
+
+    private static HandlerMethod handler(String method) throws Exception {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+    }
+
+    static class Handlers {
+        public String read() {
+            return "";
+        }
+
+        @Critical
+        public String grade() {
+            return "";
+        }
+
+        public ResponseEntity<StreamingResponseBody> download() {
+            return ResponseEntity.ok(out -> { });
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.pm.backend.datasource;
+
+import com.pm.backend.datasource.ReplicaRoutingDataSource.Replica;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// stub data sources wired the way ReplicaDataSourceConfig wires the real pools; no database needed
+class ReplicaRoutingDataSourceTests {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private Replica replica1;
+    private Replica replica2;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void wire() throws SQLException {
+        DataSource primary = stub(primaryConnection);
+        replica1 = new Replica("replica-1", stub(replica1Connection));
+        replica2 = new Replica("replica-2", stub(replica2Connection));
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), Duration.ofSeconds(5));
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource = proxy;
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void unpin() {
+        ReadYourWrites.pinToPrimary(false);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicasAndWritesUsePrimary() {
+        replica1.setLagMillis(0);
+        replica2.setLagMillis(0);
+
+        Connection first = physicalConnection(readOnly);
+        Connection second = physicalConnection(readOnly);
+
+        assertSame(replica1Connection, first == replica1Connection ? first : second);
+        assertSame(replica2Connection, first == replica1Connection ? second : first);
+        assertSame(primaryConnection, physicalConnection(readWrite));
+    }
+
+    @Test
+    void replicasTooFarBehindOrNotYetCheckedAreSkipped() {
+        replica1.setLagMillis(60_000);
+
+        assertSame(primaryConnection, physicalConnection(readOnly));
+
+        replica2.setLagMillis(100);
+        assertSame(replica2Connection, physicalConnection(readOnly));
+        assertSame(replica2Connection, physicalConnection(readOnly));
+    }
+
+    @Test
+    void unreachableReplicaIsTakenOutOfRotation() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        Replica down = new Replica("replica-1", broken);
+        down.setLagMillis(0);
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(stub(primaryConnection), List.of(down), Duration.ofSeconds(5));
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void readsOfARecentWriterStayOnPrimary() {
+        replica1.setLagMillis(0);
+        replica2.setLagMillis(0);
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(10), 100);
+        readYourWrites.recordWrite(7L);
+
+        ReadYourWrites.pinToPrimary(readYourWrites.wroteRecently(7L));
+        assertSame(primaryConnection, physicalConnection(readOnly));
+
+        ReadYourWrites.pinToPrimary(readYourWrites.wroteRecently(8L));
+        assertNotSame(primaryConnection, physicalConnection(readOnly));
+    }
+
+    // the physical connection behind the transaction's lazy one
+    private Connection physicalConnection(TransactionTemplate template) {
+        return template.execute(status ->
+                ((ConnectionProxy) DataSourceUtils.getConnection(dataSource)).getTargetConnection());
+    }
+
+    private static DataSource stub(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
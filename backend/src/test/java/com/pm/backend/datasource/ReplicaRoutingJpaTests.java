@@ -0,0 +1,39 @@
+package com.pm.backend.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// the real wiring under the JPA transaction manager; the "replica" is the test database under another application
+// name, which tells the two pools apart
+@SpringBootTest(properties = "lms.datasource.replicas=jdbc:postgresql://localhost:5432/LMS?ApplicationName=replica-1")
+class ReplicaRoutingJpaTests {
+
+    private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void readOnlyJpaTransactionsUseTheReplicaAndWritesUsePrimary() {
+        assertInstanceOf(JpaTransactionManager.class, transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("replica-1", readOnly.execute(status -> applicationName()));
+        assertNotEquals("replica-1", readWrite.execute(status -> applicationName()));
+    }
+
+    private String applicationName() {
+        return (String) entityManager.createNativeQuery(APPLICATION_NAME).getSingleResult();
+    }
+}
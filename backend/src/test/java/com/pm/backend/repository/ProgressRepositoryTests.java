@@ -0,0 +1,79 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.dto.AssignmentProgress;
+import com.pm.backend.dto.SubmissionView;
+import com.pm.backend.entity.*;
+import com.pm.backend.service.SubmissionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// the counters the submissions triggers maintain, followed through every kind of write
+@SpringBootTest
+@Transactional
+class ProgressRepositoryTests {
+
+    @Autowired private ProgressRepository progressRepository;
+    @Autowired private SubmissionService submissionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void countersFollowEveryWriteWithoutDrift() {
+        String suffix = UUID.randomUUID().toString();
+        User teacher = userRepository.save(user("teacher_" + suffix, UserRole.TEACHER));
+        User graded = userRepository.save(user("graded_" + suffix, UserRole.STUDENT));
+        User withdrawn = userRepository.save(user("withdrawn_" + suffix, UserRole.STUDENT));
+        Course course = courseRepository.save(Course.builder().title("Course " + suffix)
+                .inviteCode(suffix.substring(0, 8)).teacher(teacher).build());
+        Assignment assignment = assignmentRepository.save(Assignment.builder().title("Homework")
+                .dueDate(LocalDateTime.now().plusDays(1)).course(course).build());
+        entityManager.flush();
+
+        SubmissionView first = submissionService.submitAssignment(graded.getId(), assignment.getId(), "draft");
+        submissionService.submitAssignment(withdrawn.getId(), assignment.getId(), "to be deleted");
+        assertEquals(progress(assignment, 0, 2, 0, 0, null), progressOf(course));
+
+        submissionService.submitAssignment(graded.getId(), assignment.getId(), "final");
+        assertEquals(progress(assignment, 0, 2, 0, 0, null), progressOf(course));
+
+        submissionService.gradeSubmission(first.id(), 70, "good");
+        assertEquals(progress(assignment, 0, 1, 1, 1, 70.0), progressOf(course));
+
+        submissionService.gradeSubmission(first.id(), 90, "better on second look");
+        assertEquals(progress(assignment, 0, 1, 1, 1, 90.0), progressOf(course));
+
+        submissionRepository.delete(submissionRepository
+                .findByAssignmentIdAndStudentId(assignment.getId(), withdrawn.getId()).orElseThrow());
+        entityManager.flush();
+        assertEquals(progress(assignment, 0, 0, 1, 1, 90.0), progressOf(course));
+
+        assertEquals(0, progressRepository.repair(List.of(course.getId())));
+    }
+
+    private AssignmentProgress progressOf(Course course) {
+        List<AssignmentProgress> assignments = progressRepository.findByCourseId(course.getId());
+        assertEquals(1, assignments.size());
+        return assignments.getFirst();
+    }
+
+    private static AssignmentProgress progress(Assignment assignment, long pending, long submitted, long graded,
+                                               long gradeCount, Double averageGrade) {
+        return new AssignmentProgress(assignment.getId(), pending, submitted, graded, 0, gradeCount, averageGrade);
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder().username(username).password("password").fullName(username).role(role).build();
+    }
+}
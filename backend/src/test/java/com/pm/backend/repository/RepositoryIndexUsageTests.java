@@ -0,0 +1,244 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.entity.Course;
+import com.pm.backend.entity.User;
+import com.pm.backend.entity.UserRole;
+import com.pm.backend.service.DashboardService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every repository query must be answerable from an index. The SQL that reaches the DataSource is captured, both
+ * what Hibernate generates and the hand-written JdbcTemplate statements, then prepared and explained as a generic plan (the one prepared statements end up reusing) with sequential scans
+ * disabled: the planner then still picks a Seq Scan only when no index can serve the query, so the outcome does
+ * not depend on how much data the test database holds. Partition pruning is off as well, so every partition of
+ * submissions has to be able to serve the query; {@link #assignmentQueriesPruneSubmissionPartitions} checks that
+ * queries keyed by assignment only visit one. Lookups by submission id alone (findById, findContentRefById, the
+ * grade update) cannot be pruned and probe idx_submissions_id in every partition; the index check above covers them.
+ * <p>
+ * BlobReferenceRepository is left out on purpose: its anti-join reads every content hash, and a sequential scan is
+ * the right plan for that.
+ */
+@SpringBootTest
+@Transactional
+class RepositoryIndexUsageTests {
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SearchRepository searchRepository;
+    @Autowired private GradebookRepository gradebookRepository;
+    @Autowired private EnrollmentRepository enrollmentRepository;
+    @Autowired private ExportRepository exportRepository;
+    @Autowired private DashboardService dashboardService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DataSource dataSource;
+
+    private final CapturingListener capturing = new CapturingListener();
+
+    @BeforeEach
+    void disableSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("SET LOCAL enable_partition_pruning = off");
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(capturing);
+    }
+
+    @AfterEach
+    void stopCapturing() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(capturing);
+    }
+
+    @Test
+    void courseQueriesUseIndexes() {
+        assertIndexScan(() -> courseRepository.findByTeacherId(1L));
+        assertIndexScan(() -> courseRepository.findViewsByTeacherId(1L));
+        assertIndexScan(() -> courseRepository.findViewsByStudentId(1L));
+        assertIndexScan(() -> courseRepository.findViewById(1L));
+        assertIndexScan(() -> courseRepository.findViewByInviteCode("none"));
+    }
+
+    @Test
+    void assignmentQueriesUseIndexes() {
+        assertIndexScan(() -> assignmentRepository.findByCourseId(1L));
+        assertIndexScan(() -> assignmentRepository.findViewsByCourseId(1L));
+        assertIndexScan(() -> assignmentRepository.findViewById(1L));
+        assertIndexScan(() -> assignmentRepository.findDashboardAssignments(1L, LocalDateTime.now()));
+    }
+
+    @Test
+    void submissionQueriesUseIndexes() {
+        assertIndexScan(() -> submissionRepository.findByAssignmentId(1L));
+        assertIndexScan(() -> submissionRepository.findByAssignmentIdAndStudentId(1L, 1L));
+        assertIndexScan(() -> submissionRepository.findViewByAssignmentIdAndStudentId(1L, 1L));
+        assertIndexScan(() -> submissionRepository.findPageByAssignmentId(1L, 0L, null, null, null, Limit.of(50)));
+        assertIndexScan(() -> submissionRepository.findContentRefById(1L));
+    }
+
+    // with every parameter null no partition qualifies, so a pruned plan shows all of them as removed
+    @Test
+    void assignmentQueriesPruneSubmissionPartitions() {
+        jdbcTemplate.execute("SET LOCAL enable_partition_pruning = on");
+        assertPruned(() -> submissionRepository.findByAssignmentId(1L));
+        assertPruned(() -> submissionRepository.findByAssignmentIdAndStudentId(1L, 1L));
+        assertPruned(() -> submissionRepository.findViewByAssignmentIdAndStudentId(1L, 1L));
+        assertPruned(() -> submissionRepository.findPageByAssignmentId(1L, 0L, null, null, null, Limit.of(50)));
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        assertIndexScan(() -> userRepository.findByUsername("none"));
+    }
+
+    @Test
+    void searchQueriesUseIndexes() {
+        assertIndexScan(() -> searchRepository.search(1L, true, "lorem", 0, 20));
+        assertIndexScan(() -> searchRepository.search(1L, false, "lorem", 0, 20));
+    }
+
+    @Test
+    void gradebookQueriesUseIndexes() {
+        assertIndexScan(() -> gradebookRepository.findAssignmentStats(1L));
+        assertIndexScan(() -> gradebookRepository.streamRows(1L, row -> { }));
+    }
+
+    @Test
+    void exportQueriesUseIndexes() {
+        assertIndexScan(() -> exportRepository.streamCourse(1L, row -> { }));
+        // a term without assignments, so the test does not export the database
+        LocalDateTime from = LocalDateTime.of(1900, 1, 1, 0, 0);
+        assertIndexScan(() -> exportRepository.streamDueBetween(from, from.plusMonths(6), row -> { }));
+    }
+
+    // writes too: their conflict checks and lookups have to be index probes. Rolled back with the test
+    @Test
+    void enrollmentQueriesUseIndexes() {
+        Course course = seedCourse();
+        User student = seedUser("student_", UserRole.STUDENT);
+        assertIndexScan(() -> enrollmentRepository.enroll(student.getId(), course.getId()));
+        assertIndexScan(() -> enrollmentRepository.enrollByUsernames(course.getId(), List.of(student.getUsername())));
+    }
+
+    // the statements behind the student dashboard, including the existence check an empty one costs
+    @Test
+    void dashboardQueriesUseIndexes() {
+        Course course = seedCourse();
+        User student = seedUser("student_", UserRole.STUDENT);
+        enrollmentRepository.enroll(student.getId(), course.getId());
+        User loner = seedUser("loner_", UserRole.STUDENT);
+        assertIndexScan(() -> dashboardService.getStudentDashboard(student.getId()));
+        assertIndexScan(() -> dashboardService.getStudentDashboard(loner.getId()));
+    }
+
+    private Course seedCourse() {
+        User teacher = seedUser("teacher_", UserRole.TEACHER);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return courseRepository.save(Course.builder().title("Course " + suffix).inviteCode(suffix)
+                .teacher(teacher).build());
+    }
+
+    private User seedUser(String prefix, UserRole role) {
+        return userRepository.save(User.builder().username(prefix + UUID.randomUUID()).password("password")
+                .fullName(prefix).role(role).build());
+    }
+
+    private void assertIndexScan(Runnable query) {
+        List<String> statements = capture(query);
+        assertFalse(statements.isEmpty(), "no statement was captured");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("Seq Scan"), () -> "sequential scan in\n" + sql + "\n" + plan);
+            // a plain INSERT ... VALUES reads no relation and has nothing to look up
+            if (plan.contains("Scan on")) {
+                assertTrue(plan.contains("Index"), () -> "no index used by\n" + sql + "\n" + plan);
+            }
+        }
+    }
+
+    private void assertPruned(Runnable query) {
+        for (String sql : capture(query)) {
+            String plan = explain(sql);
+            assertTrue(plan.contains("Subplans Removed"), () -> "submissions partitions not pruned in\n" + sql + "\n" + plan);
+        }
+    }
+
+    // the statements the query sends, without the ones this test runs to explain them or scheduled jobs run meanwhile
+    private List<String> capture(Runnable query) {
+        capturing.statements.clear();
+        capturing.thread = Thread.currentThread();
+        try {
+            query.run();
+        } finally {
+            capturing.thread = null;
+        }
+        return List.copyOf(capturing.statements);
+    }
+
+    // JDBC ? placeholders become $n parameters of a prepared statement, executed with all of them null. Types are
+    // inferred from the query, except for a bare "? is null", which has none; the driver binds those as varchar
+    private String explain(String sql) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder prepared = new StringBuilder();
+        List<String> types = new ArrayList<>();
+        while (matcher.find()) {
+            types.add(sql.startsWith(" is null", matcher.end()) ? "varchar" : "unknown");
+            matcher.appendReplacement(prepared, "\\$" + types.size());
+        }
+        matcher.appendTail(prepared);
+        if (types.isEmpty()) {
+            return plan("PREPARE index_check AS " + prepared, "EXPLAIN EXECUTE index_check");
+        }
+        return plan("PREPARE index_check(" + String.join(", ", types) + ") AS " + prepared,
+                "EXPLAIN EXECUTE index_check(" + String.join(", ", Collections.nCopies(types.size(), "NULL")) + ")");
+    }
+
+    private String plan(String prepare, String explain) {
+        jdbcTemplate.execute(prepare);
+        try {
+            return String.join("\n", jdbcTemplate.queryForList(explain, String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE index_check");
+        }
+    }
+
+    private static class CapturingListener implements QueryExecutionListener {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+        volatile Thread thread;
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (thread == Thread.currentThread()) queryInfoList.forEach(q -> statements.add(q.getQuery()));
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.entity.*;
+import com.pm.backend.service.SubmissionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class SubmissionPartitionRepositoryTests {
+
+    // far above every range the test database has attached, like an assignment whose range was archived
+    private static final long UNPARTITIONED_ASSIGNMENT = 4_000_000_000_000L;
+
+    @Autowired private SubmissionPartitionRepository partitionRepository;
+    @Autowired private SubmissionService submissionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void onlyPartitionNamesCountAsDetached() {
+        jdbcTemplate.execute("CREATE TABLE submissions_notes (id bigint)");
+        jdbcTemplate.execute("CREATE TABLE submissions_from_" + UNPARTITIONED_ASSIGNMENT + " (id bigint)");
+
+        assertTrue(partitionRepository.findDetached().contains("submissions_from_" + UNPARTITIONED_ASSIGNMENT));
+        assertFalse(partitionRepository.findDetached().contains("submissions_notes"));
+    }
+
+    @Test
+    void archivingARangeClosesItsUnsweptAssignments() {
+        Course course = course(UUID.randomUUID().toString());
+        // below every range but the legacy one, and due before anything the sweeper has handled
+        long unswept = -UNPARTITIONED_ASSIGNMENT;
+        jdbcTemplate.update("INSERT INTO assignments (id, title, due_date, course_id) VALUES (?, 'Old', ?, ?)",
+                unswept, LocalDateTime.of(2000, 1, 1, 0, 0), course.getId());
+
+        jdbcTemplate.execute("ALTER TABLE submissions DETACH PARTITION submissions_legacy");
+        partitionRepository.archive("submissions_legacy");
+
+        assertNotNull(jdbcTemplate.queryForObject("SELECT swept_at FROM assignments WHERE id = ?",
+                LocalDateTime.class, unswept));
+    }
+
+    @Test
+    void submitOutsideEveryPartitionIsRejectedAsArchived() {
+        String suffix = UUID.randomUUID().toString();
+        User student = userRepository.save(User.builder().username("student_" + suffix).password("password")
+                .fullName("Student").role(UserRole.STUDENT).build());
+        Course course = course(suffix);
+        jdbcTemplate.update("INSERT INTO assignments (id, title, due_date, course_id) VALUES (?, 'Old', ?, ?)",
+                UNPARTITIONED_ASSIGNMENT, LocalDateTime.now().plusDays(1), course.getId());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> submissionService.submitAssignment(student.getId(), UNPARTITIONED_ASSIGNMENT, "late work"));
+        assertEquals("Assignment is archived and no longer accepts submissions", e.getMessage());
+    }
+
+    private Course course(String suffix) {
+        User teacher = userRepository.save(User.builder().username("teacher_" + suffix).password("password")
+                .fullName("Teacher").role(UserRole.TEACHER).build());
+        return courseRepository.save(Course.builder().title("Course " + suffix)
+                .inviteCode(suffix.substring(0, 8)).teacher(teacher).build());
+    }
+}
@@ -0,0 +1,93 @@
+package com.pm.backend.service;
+
+import com.pm.backend.entity.*;
+import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.BlobReferenceRepository;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.repository.UserRepository;
+import com.pm.backend.storage.BlobRef;
+import com.pm.backend.storage.FileSystemBlobStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class BlobGarbageCollectorTests {
+
+    @Autowired private BlobReferenceRepository blobReferenceRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private EntityManager entityManager;
+
+    @TempDir Path root;
+
+    @Test
+    void onlyOldUnreferencedBlobsAreDeleted() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root);
+        BlobGarbageCollector collector = new BlobGarbageCollector(store, blobReferenceRepository, transactionManager,
+                true, Duration.ofHours(1));
+        String suffix = UUID.randomUUID().toString();
+
+        BlobRef orphan = age(store, store.put(bytes("orphaned " + suffix)));
+        BlobRef referenced = age(store, store.put(bytes("referenced " + suffix)));
+        BlobRef fresh = store.put(bytes("uploaded just now " + suffix));
+        BlobRef storedAgain = age(store, store.put(bytes("stored again " + suffix)));
+        store.put(bytes("stored again " + suffix));
+        submit(suffix, referenced);
+
+        assertEquals(1, collector.collect());
+        assertFalse(store.exists(orphan.hash()));
+        assertTrue(store.exists(referenced.hash()));
+        assertTrue(store.exists(fresh.hash()));
+        assertTrue(store.exists(storedAgain.hash()));
+    }
+
+    private BlobRef age(FileSystemBlobStore store, BlobRef blob) throws IOException {
+        Files.setLastModifiedTime(store.localPath(blob.hash()).orElseThrow(),
+                FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        return blob;
+    }
+
+    private void submit(String suffix, BlobRef content) {
+        User teacher = userRepository.save(User.builder().username("teacher_" + suffix).password("password")
+                .fullName("Teacher").role(UserRole.TEACHER).build());
+        User student = userRepository.save(User.builder().username("student_" + suffix).password("password")
+                .fullName("Student").role(UserRole.STUDENT).build());
+        Course course = courseRepository.save(Course.builder().title("Course " + suffix)
+                .inviteCode(suffix.substring(0, 8)).teacher(teacher).build());
+        Assignment assignment = assignmentRepository.save(Assignment.builder().title("Homework")
+                .dueDate(LocalDateTime.now().plusDays(1)).course(course).build());
+        submissionRepository.save(Submission.builder().assignment(assignment).student(student)
+                .contentHash(content.hash()).contentSize(content.size()).contentPreview("referenced")
+                .status(SubmissionStatus.SUBMITTED).submittedAt(LocalDateTime.now()).build());
+        entityManager.flush();
+    }
+
+    private static ByteArrayInputStream bytes(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,129 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.GradeEntry;
+import com.pm.backend.dto.GradeResult;
+import com.pm.backend.entity.*;
+import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class BulkGradingTests {
+
+    @Autowired private SubmissionService submissionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private EntityManager entityManager;
+
+    private Assignment assignment;
+    private final List<Submission> submissions = new ArrayList<>();
+    private Submission otherAssignmentSubmission;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User teacher = userRepository.save(user("teacher_" + suffix, UserRole.TEACHER));
+        Course course = courseRepository.save(Course.builder()
+                .title("Course " + suffix).inviteCode(suffix).teacher(teacher).build());
+        assignment = assignmentRepository.save(Assignment.builder()
+                .title("Quiz").maxScore(10).dueDate(LocalDateTime.now().plusDays(1)).course(course).build());
+        Assignment other = assignmentRepository.save(Assignment.builder()
+                .title("Essay").maxScore(100).dueDate(LocalDateTime.now().plusDays(1)).course(course).build());
+
+        for (int i = 0; i < 5; i++) {
+            User student = userRepository.save(user("student_" + suffix + "_" + i, UserRole.STUDENT));
+            submissions.add(submissionRepository.save(submission(assignment, student)));
+            if (i == 0) otherAssignmentSubmission = submissionRepository.save(submission(other, student));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void eachEntryIsValidatedOnItsOwn() {
+        List<GradeResult> results = submissionService.gradeSubmissions(assignment.getId(), List.of(
+                new GradeEntry(id(0), 10, "full marks"),
+                new GradeEntry(id(1), 11, "too high"),
+                new GradeEntry(id(2), -1, "negative"),
+                new GradeEntry(id(3), null, "no grade"),
+                new GradeEntry(id(4), 0, null),
+                new GradeEntry(id(4), 5, "again"),
+                new GradeEntry(otherAssignmentSubmission.getId(), 5, null),
+                new GradeEntry(-1L, 5, null)));
+
+        assertEquals(List.of(
+                GradeResult.ok(id(0)),
+                GradeResult.failed(id(1), "Grade must be between 0 and 10"),
+                GradeResult.failed(id(2), "Grade must be between 0 and 10"),
+                GradeResult.failed(id(3), "Grade is required"),
+                GradeResult.ok(id(4)),
+                GradeResult.failed(id(4), "Duplicate entry"),
+                GradeResult.failed(otherAssignmentSubmission.getId(), "Submission does not belong to this assignment"),
+                GradeResult.failed(-1L, "Submission not found")), results);
+
+        entityManager.flush();
+        entityManager.clear();
+        assertGraded(id(0), 10, "full marks");
+        assertGraded(id(4), 0, null);
+        for (int i = 1; i <= 3; i++) {
+            Submission untouched = submissionRepository.findById(id(i)).orElseThrow();
+            assertEquals(SubmissionStatus.SUBMITTED, untouched.getStatus());
+            assertNull(untouched.getGrade());
+        }
+        assertNull(submissionRepository.findById(otherAssignmentSubmission.getId()).orElseThrow().getGrade());
+    }
+
+    @Test
+    void singleGradeFollowsTheSameRules() {
+        assertEquals("Grade must be between 0 and 10", assertThrows(RuntimeException.class,
+                () -> submissionService.gradeSubmission(id(0), 11, "too high")).getMessage());
+        assertEquals("Grade must be between 0 and 10", assertThrows(RuntimeException.class,
+                () -> submissionService.gradeSubmission(id(1), -1, "negative")).getMessage());
+        assertEquals("Grade is required", assertThrows(RuntimeException.class,
+                () -> submissionService.gradeSubmission(id(2), null, "no grade")).getMessage());
+
+        submissionService.gradeSubmission(id(3), 10, "full marks");
+        entityManager.flush();
+        entityManager.clear();
+        assertGraded(id(3), 10, "full marks");
+    }
+
+    private void assertGraded(Long submissionId, int grade, String feedback) {
+        Submission graded = submissionRepository.findById(submissionId).orElseThrow();
+        assertEquals(SubmissionStatus.GRADED, graded.getStatus());
+        assertEquals(grade, graded.getGrade());
+        assertEquals(feedback, graded.getFeedback());
+    }
+
+    private Long id(int i) {
+        return submissions.get(i).getId();
+    }
+
+    private static Submission submission(Assignment assignment, User student) {
+        return Submission.builder().assignment(assignment).student(student).content("answer")
+                .status(SubmissionStatus.SUBMITTED).submittedAt(LocalDateTime.now()).build();
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder().username(username).password("password").fullName(username).role(role).build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.CourseView;
+import com.pm.backend.dto.RosterImportResult;
+import com.pm.backend.entity.Course;
+import com.pm.backend.entity.User;
+import com.pm.backend.entity.UserRole;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.EnrollmentRepository;
+import com.pm.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class CourseEnrollmentTests {
+
+    @Autowired private CourseService courseService;
+    @Autowired private EnrollmentRepository enrollmentRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private User teacher;
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void seed() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        teacher = userRepository.save(user("teacher_" + suffix, UserRole.TEACHER));
+        student = userRepository.save(user("student_" + suffix, UserRole.STUDENT));
+        course = courseRepository.save(Course.builder().title("Course " + suffix)
+                .inviteCode(suffix.toUpperCase(Locale.ROOT)).teacher(teacher).build());
+    }
+
+    @Test
+    void joiningTwiceByInviteCodeEnrollsOnce() {
+        CourseView first = courseService.joinCourse(student.getId(), " " + suffix.toLowerCase(Locale.ROOT) + " ");
+        CourseView again = courseService.joinCourse(student.getId(), suffix.toUpperCase(Locale.ROOT));
+
+        assertEquals(course.getId(), first.id());
+        assertEquals(course.getId(), again.id());
+        assertEquals(1, enrollments(student));
+    }
+
+    @Test
+    void unknownInviteCodeIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> courseService.joinCourse(student.getId(), "NO-SUCH-CODE"));
+        assertEquals("Course not found", e.getMessage());
+        assertEquals(0, enrollments(student));
+    }
+
+    @Test
+    void rosterImportPutsEveryDistinctUsernameInOneBucket() {
+        User enrolledBefore = userRepository.save(user("enrolled_" + suffix, UserRole.STUDENT));
+        enrollmentRepository.enroll(enrolledBefore.getId(), course.getId());
+
+        RosterImportResult result = enrollmentRepository.enrollByUsernames(course.getId(), List.of(
+                student.getUsername(), student.getUsername(), enrolledBefore.getUsername(),
+                teacher.getUsername(), "missing_" + suffix));
+
+        assertEquals(new RosterImportResult(4, 1, 1, List.of("missing_" + suffix), List.of(teacher.getUsername())),
+                result);
+        assertEquals(1, enrollments(student));
+        assertEquals(1, enrollments(enrolledBefore));
+        assertEquals(0, enrollments(teacher));
+    }
+
+    private int enrollments(User user) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollments WHERE student_id = ? AND course_id = ?",
+                Integer.class, user.getId(), course.getId());
+        return count == null ? 0 : count;
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder().username(username).password("password").fullName(username).role(role).build();
+    }
+}
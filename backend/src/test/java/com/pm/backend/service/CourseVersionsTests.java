@@ -0,0 +1,41 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.CourseChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class CourseVersionsTests {
+
+    @Autowired private CourseVersions courseVersions;
+
+    @Test
+    void unknownAssignmentHasNoTag() {
+        assertNull(courseVersions.assignmentTag(-1L));
+    }
+
+    // a replica may serve reads while up to twice max-lag behind, so a tag waits at least that plus a check interval
+    @Test
+    void withReplicasANewVersionIsTaggedOnlyAfterTheSettleWindow() throws InterruptedException {
+        Duration maxLag = Duration.ofMillis(200);
+        Duration checkInterval = Duration.ofMillis(100);
+        CourseVersions versions = new CourseVersions(null, List.of("jdbc:postgresql://replica/LMS"),
+                maxLag, checkInterval);
+        assertNotNull(versions.courseTag(1L));
+
+        versions.onCourseChanged(CourseChangedEvent.assignmentsChanged(1L));
+        assertNull(versions.courseTag(1L));
+        Thread.sleep(maxLag.multipliedBy(2).plus(checkInterval).toMillis());
+        assertNull(versions.courseTag(1L));
+
+        Thread.sleep(1_500);
+        assertNotNull(versions.courseTag(1L));
+    }
+}
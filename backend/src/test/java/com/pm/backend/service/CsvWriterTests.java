@@ -0,0 +1,36 @@
+package com.pm.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTests {
+
+    @Test
+    void plainFieldsAndNullsAreWrittenAsIs() {
+        assertEquals("1,plain text,,true,\r\n", write(1L, "plain text", null, true, null));
+    }
+
+    @Test
+    void fieldsWithSeparatorsQuotesOrLineBreaksAreQuoted() {
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",\"cr\rhere\",\"\"\"\"\r\n",
+                write("a,b", "say \"hi\"", "two\nlines", "cr\rhere", "\""));
+    }
+
+    @Test
+    void recordsEndWithCrLf() {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRecord("id", "name");
+        csv.writeRecord(7, "Ada");
+        assertEquals("id,name\r\n7,Ada\r\n", out.toString());
+    }
+
+    private static String write(Object... fields) {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRecord(fields);
+        return out.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionEvent;
+import com.pm.backend.entity.*;
+import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.EnrollmentRepository;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@Transactional
+class DeadlineSweeperTests {
+
+    // older than anything the seed data holds, so a chunk of one claims it first
+    private static final LocalDateTime DUE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private EnrollmentRepository enrollmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void pastDueAssignmentGetsLateFlagsAndPendingRows() {
+        String suffix = UUID.randomUUID().toString();
+        User teacher = userRepository.save(user("teacher_" + suffix, UserRole.TEACHER));
+        User lateStudent = userRepository.save(user("late_" + suffix, UserRole.STUDENT));
+        User missingStudent = userRepository.save(user("missing_" + suffix, UserRole.STUDENT));
+        userRepository.save(user("outsider_" + suffix, UserRole.STUDENT));
+        Course course = courseRepository.save(Course.builder().title("Course " + suffix)
+                .inviteCode(suffix.substring(0, 8)).teacher(teacher).build());
+        enrollmentRepository.enroll(lateStudent.getId(), course.getId());
+        enrollmentRepository.enroll(missingStudent.getId(), course.getId());
+        Assignment assignment = assignmentRepository.save(Assignment.builder().title("Homework")
+                .dueDate(DUE).course(course).build());
+        submissionRepository.save(Submission.builder().assignment(assignment).student(lateStudent)
+                .contentPreview("a day late").status(SubmissionStatus.SUBMITTED).submittedAt(DUE.plusDays(1))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Object> events = new ArrayList<>();
+        DeadlineSweeper sweeper = new DeadlineSweeper(namedJdbcTemplate, transactionManager, events::add,
+                true, 1, Duration.ofSeconds(30));
+
+        assertEquals(new DeadlineSweeper.ChunkResult(1, 1, 1), sweeper.sweepChunk(LocalDateTime.now()));
+
+        Map<Long, String> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT student_id, status, late FROM submissions WHERE assignment_id = ?",
+                rs -> { rows.put(rs.getLong(1), rs.getString(2) + (rs.getBoolean(3) ? " late" : "")); },
+                assignment.getId());
+        assertEquals(Map.of(lateStudent.getId(), "SUBMITTED late", missingStudent.getId(), "PENDING"), rows);
+        assertNotNull(jdbcTemplate.queryForObject("SELECT swept_at FROM assignments WHERE id = ?",
+                LocalDateTime.class, assignment.getId()));
+
+        assertEquals(1, events.size());
+        SubmissionEvent event = (SubmissionEvent) events.getFirst();
+        assertEquals(SubmissionEvent.Type.CLOSED, event.type());
+        assertEquals(assignment.getId(), event.assignmentId());
+        assertEquals(course.getId(), event.courseId());
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder().username(username).password("password").fullName(username).role(role).build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.GradeEntry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeCsvParserTests {
+
+    @Test
+    void parsesRowsAfterOptionalHeader() throws IOException {
+        List<GradeEntry> entries = GradeCsvParser.parse(new StringReader(
+                "submissionId,grade,feedback\r\n7,95,Great work\r\n\r\n8,,\n9,40\n"));
+
+        assertEquals(List.of(
+                new GradeEntry(7L, 95, "Great work"),
+                new GradeEntry(8L, null, ""),
+                new GradeEntry(9L, 40, null)), entries);
+    }
+
+    @Test
+    void quotedFeedbackMayContainCommasQuotesAndLineBreaks() throws IOException {
+        List<GradeEntry> entries = GradeCsvParser.parse(new StringReader(
+                "7,80,\"Good, but \"\"see\"\" notes\nline two\"\n8,70,\"\"\n"));
+
+        assertEquals(List.of(
+                new GradeEntry(7L, 80, "Good, but \"see\" notes\nline two"),
+                new GradeEntry(8L, 70, "")), entries);
+    }
+
+    @Test
+    void malformedLinesAreRejectedWithTheirLineNumber() {
+        IllegalArgumentException missingGrade = assertThrows(IllegalArgumentException.class,
+                () -> GradeCsvParser.parse(new StringReader("7,90\n8\n")));
+        assertTrue(missingGrade.getMessage().startsWith("Line 2:"), missingGrade.getMessage());
+
+        IllegalArgumentException badNumber = assertThrows(IllegalArgumentException.class,
+                () -> GradeCsvParser.parse(new StringReader("submissionId,grade\n7,ninety\n")));
+        assertTrue(badNumber.getMessage().startsWith("Line 2:"), badNumber.getMessage());
+    }
+}
@@ -0,0 +1,124 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionPage;
+import com.pm.backend.entity.*;
+import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ReadModelQueryCountTests {
+
+    private static final int STUDENTS = 25;
+
+    @Autowired private CourseService courseService;
+    @Autowired private AssignmentService assignmentService;
+    @Autowired private SubmissionService submissionService;
+    @Autowired private DashboardService dashboardService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User teacher;
+    private User student;
+    private Course course;
+    private Assignment assignment;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        teacher = userRepository.save(user("teacher_" + suffix, UserRole.TEACHER));
+        course = courseRepository.save(Course.builder()
+                .title("Course " + suffix).subject("Math").inviteCode(suffix).teacher(teacher).build());
+        assignment = assignmentRepository.save(Assignment.builder()
+                .title("Homework").maxScore(100).dueDate(LocalDateTime.now().plusDays(1)).course(course).build());
+
+        List<Submission> submissions = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            User s = user("student_" + suffix + "_" + i, UserRole.STUDENT);
+            s.setEnrolledCourses(new ArrayList<>(List.of(course)));
+            s = userRepository.save(s);
+            if (i == 0) student = s;
+            submissions.add(Submission.builder().assignment(assignment).student(s).content("answer " + i)
+                    .status(SubmissionStatus.SUBMITTED).submittedAt(LocalDateTime.now()).build());
+        }
+        submissionRepository.saveAll(submissions);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void teacherCourseListIsBounded() {
+        assertEquals(1, courseService.getCoursesForUser(teacher.getId()).size());
+        assertStatementsAtMost(2);
+    }
+
+    @Test
+    void studentCourseListIsBounded() {
+        assertEquals(course.getId(), courseService.getCoursesForUser(student.getId()).getFirst().id());
+        assertStatementsAtMost(2);
+    }
+
+    @Test
+    void assignmentListIsBounded() {
+        assertEquals(1, assignmentService.getAssignmentsByCourse(course.getId()).size());
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void submissionPageIsBoundedRegardlessOfRowCount() {
+        SubmissionPage page = submissionService.getSubmissionPage(assignment.getId(), null, 100, null, null, null);
+        assertEquals(STUDENTS, page.items().size());
+        page.items().forEach(s -> assertNotNull(s.student().fullName()));
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void studentDashboardIsBounded() {
+        assertEquals(course.getId(), dashboardService.getStudentDashboard(student.getId()).courses().getFirst().id());
+        assertStatementsAtMost(2);
+    }
+
+    @Test
+    void dashboardOfUnknownUserIsNotFound() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> dashboardService.getStudentDashboard(-1L));
+        assertEquals("User not found", e.getMessage());
+    }
+
+    private void assertStatementsAtMost(long max) {
+        long executed = statistics.getPrepareStatementCount();
+        assertTrue(executed <= max, "expected at most " + max + " statements but ran " + executed);
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder().username(username).password("password").fullName("User " + username).role(role).build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.pm.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RosterCsvParserTests {
+
+    @Test
+    void readsFirstColumnAfterOptionalHeader() throws IOException {
+        List<String> usernames = RosterCsvParser.parse(new StringReader(
+                "username,fullName\r\nalice,Alice A\r\n\r\n  bob  \n\"carol\",\"Carol, C\"\n,no username\n"));
+
+        assertEquals(List.of("alice", "bob", "carol"), usernames);
+    }
+
+    @Test
+    void headerIsOnlySkippedOnTheFirstLine() throws IOException {
+        assertEquals(List.of("alice", "username"),
+                RosterCsvParser.parse(new StringReader("alice\nusername\n")));
+    }
+}
@@ -0,0 +1,123 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.OutboxEvent;
+import com.pm.backend.dto.SubmissionView;
+import com.pm.backend.entity.*;
+import com.pm.backend.repository.AssignmentRepository;
+import com.pm.backend.repository.CourseRepository;
+import com.pm.backend.repository.SubmissionRepository;
+import com.pm.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SubmissionConcurrencyTests {
+
+    private static final int PARALLEL_SUBMITS = 500;
+
+    @Autowired private SubmissionService submissionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User student;
+    private Course course;
+    private Assignment assignment;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        teacher = userRepository.save(User.builder().username("teacher_" + suffix).password("password")
+                .fullName("Teacher").role(UserRole.TEACHER).build());
+        student = userRepository.save(User.builder().username("student_" + suffix).password("password")
+                .fullName("Student").role(UserRole.STUDENT).build());
+        course = courseRepository.save(Course.builder().title("Course " + suffix).inviteCode(suffix)
+                .teacher(teacher).build());
+        assignment = assignmentRepository.save(Assignment.builder().title("Homework")
+                .dueDate(LocalDateTime.now().plusHours(1)).course(course).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM submission_idempotency_keys WHERE assignment_id = ?", assignment.getId());
+        submissionRepository.deleteAll(submissionRepository.findByAssignmentId(assignment.getId()));
+        assignmentRepository.delete(assignment);
+        courseRepository.delete(course);
+        userRepository.deleteAll(List.of(student, teacher));
+    }
+
+    @Test
+    void parallelSubmitsForOneStudentLeaveExactlyOneRow() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SubmissionView>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(64)) {
+            for (int i = 0; i < PARALLEL_SUBMITS; i++) {
+                String content = "attempt " + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return submissionService.submitAssignment(student.getId(), assignment.getId(), content);
+                }));
+            }
+            start.countDown();
+            for (Future<SubmissionView> result : results) {
+                result.get();
+            }
+        }
+
+        List<Submission> rows = submissionRepository.findByAssignmentId(assignment.getId());
+        assertEquals(1, rows.size());
+        results.forEach(r -> assertEquals(rows.getFirst().getId(), r.resultNow().id()));
+    }
+
+    @Test
+    void retryWithSameIdempotencyKeyIsANoOp() {
+        SubmissionView first = submissionService.submitAssignment(student.getId(), assignment.getId(), "v1", "key-1");
+        SubmissionView retry = submissionService.submitAssignment(student.getId(), assignment.getId(), "v1", "key-1");
+        SubmissionView edited = submissionService.submitAssignment(student.getId(), assignment.getId(), "v2", "key-2");
+
+        assertEquals(first.id(), retry.id());
+        assertEquals(first.submittedAt(), retry.submittedAt());
+        assertEquals(first.id(), edited.id());
+        assertEquals("v2", edited.preview());
+        // the replay changed nothing, so only the two real submits were recorded
+        assertEquals(2, submittedEvents(first.id()));
+    }
+
+    @Test
+    void delayedRetryOfAnOlderKeyDoesNotOverwriteNewerContent() {
+        submissionService.submitAssignment(student.getId(), assignment.getId(), "v1", "key-1");
+        SubmissionView newer = submissionService.submitAssignment(student.getId(), assignment.getId(), "version two", "key-2");
+        SubmissionView staleRetry = submissionService.submitAssignment(student.getId(), assignment.getId(), "v1", "key-1");
+
+        assertEquals("version two", staleRetry.preview());
+        assertEquals(newer.submittedAt(), staleRetry.submittedAt());
+        Submission row = submissionRepository.findByAssignmentIdAndStudentId(assignment.getId(), student.getId())
+                .orElseThrow();
+        assertEquals(newer.contentSize(), row.getContentSize());
+        assertEquals("key-2", row.getIdempotencyKey());
+    }
+
+    private int submittedEvents(Long submissionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE aggregate_type = 'SUBMISSION' AND aggregate_id = ?"
+                        + " AND event_type = ?", Integer.class, submissionId, OutboxEvent.SUBMISSION_SUBMITTED);
+    }
+}
@@ -0,0 +1,128 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.SubmissionEvent;
+import com.pm.backend.entity.SubmissionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SubmissionEventHubTests {
+
+    // ids no real assignment or course uses, so concurrent activity cannot reach these subscribers
+    private static final AtomicLong IDS = new AtomicLong(-1_000_000);
+
+    @Autowired private SubmissionEventHub eventHub;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void slowSubscriberIsEvictedWithoutHoldingUpOthers() throws Exception {
+        SubmissionEventHub hub = new SubmissionEventHub(Duration.ofMinutes(1), 2);
+        long assignmentId = IDS.decrementAndGet();
+        RecordingEmitter slow = new RecordingEmitter(true);
+        RecordingEmitter fast = new RecordingEmitter(false);
+        hub.subscribe(SubmissionEventHub.assignmentTopic(assignmentId), slow);
+        hub.subscribe(SubmissionEventHub.assignmentTopic(assignmentId), fast);
+        try {
+            // paced by the fast subscriber, so only the slow one can fall behind: it holds one event in send and
+            // two buffered, so the fourth overflows it
+            for (int i = 1; i <= 5; i++) {
+                hub.onSubmissionEvent(event(assignmentId));
+                assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS), "fast subscriber missed event " + i);
+                if (i == 1) assertTrue(slow.sending.await(5, TimeUnit.SECONDS), "slow subscriber never started sending");
+                assertEquals(i >= 4, slow.completed, "slow subscriber state after event " + i);
+            }
+            assertEquals(1, hub.subscriberCount());
+        } finally {
+            slow.gate.countDown();
+            hub.shutdown();
+        }
+    }
+
+    @Test
+    void eventsAreDeliveredOnlyAfterTheTransactionCommits() throws Exception {
+        long assignmentId = IDS.decrementAndGet();
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        eventHub.subscribe(SubmissionEventHub.assignmentTopic(assignmentId), emitter);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                eventPublisher.publishEvent(event(assignmentId));
+                assertNull(poll(emitter, 200), "delivered before commit");
+            });
+            assertNotNull(poll(emitter, 5000), "not delivered after commit");
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                eventPublisher.publishEvent(event(assignmentId));
+                tx.setRollbackOnly();
+            });
+            assertNull(poll(emitter, 500), "delivered although the transaction rolled back");
+        } finally {
+            emitter.complete();
+        }
+    }
+
+    private static String poll(RecordingEmitter emitter, long millis) {
+        try {
+            return emitter.sent.poll(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SubmissionEvent event(long assignmentId) {
+        return new SubmissionEvent(SubmissionEvent.Type.SUBMITTED, 1L, assignmentId, IDS.decrementAndGet(), 1L,
+                SubmissionStatus.SUBMITTED, null, LocalDateTime.now());
+    }
+
+    // stands in for a client connection; a closed gate makes every send block like a client that stopped reading
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch gate;
+        final CountDownLatch sending = new CountDownLatch(1);
+        volatile boolean completed;
+
+        RecordingEmitter(boolean blocked) {
+            this.gate = new CountDownLatch(blocked ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
@@ -3,6 +3,7 @@ import Login from './pages/Login';
 import Dashboard from './pages/Dashboard';
 import CourseDetail from './pages/CourseDetail';
 import AssignmentDetail from './pages/AssignmentDetail'; // 1. 引入新组件
+import SearchResultsPage from './pages/SearchResults';
 
 function App() {
   return (
@@ -12,6 +13,7 @@ function App() {
         <Route path="/dashboard" element={<Dashboard />} />
         <Route path="/courses/:courseId" element={<CourseDetail />} />
         <Route path="/assignments/:assignmentId" element={<AssignmentDetail />} />
+        <Route path="/search" element={<SearchResultsPage />} />
         {/*default redirect */}
         <Route path="*" element={<Navigate to="/login" replace />} />
       </Routes>
@@ -1,5 +1,6 @@
-import React from 'react';
-import { LogOut, BookOpen, UserCircle } from 'lucide-react';
+import React, { useState } from 'react';
+import { useNavigate } from 'react-router-dom';
+import { LogOut, BookOpen, UserCircle, Search } from 'lucide-react';
 import { logout, getCurrentUserRole } from '../services/api';
 
 interface LayoutProps {
@@ -8,6 +9,13 @@ interface LayoutProps {
 
 const Layout: React.FC<LayoutProps> = ({ children }) => {
   const role = getCurrentUserRole();
+  const navigate = useNavigate();
+  const [query, setQuery] = useState('');
+
+  const handleSearch = (e: React.FormEvent) => {
+    e.preventDefault();
+    if (query.trim()) navigate(`/search?q=${encodeURIComponent(query.trim())}`);
+  };
 
   return (
     <div className="min-h-screen bg-slate-50">
@@ -19,6 +27,18 @@ const Layout: React.FC<LayoutProps> = ({ children }) => {
           <span className="text-xl font-bold tracking-tight">OpenLMS</span>
         </div>
 
+        {/* Search */}
+        <form onSubmit={handleSearch} className="flex-1 max-w-md mx-8 relative">
+          <Search className="w-4 h-4 text-slate-400 absolute left-3 top-1/2 -translate-y-1/2" />
+          <input
+            type="search"
+            placeholder="Search courses, assignments, submissions"
+            className="w-full pl-9 pr-3 py-2 border border-slate-200 rounded-full text-sm focus:ring-2 focus:ring-blue-500 focus:border-blue-500 outline-none"
+            value={query}
+            onChange={e => setQuery(e.target.value)}
+          />
+        </form>
+
         {/* User Info and Logout */}
         <div className="flex items-center gap-6">
           <div className="flex items-center gap-2 text-slate-600 bg-slate-100 px-3 py-1.5 rounded-full">
@@ -1,13 +1,15 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import Layout from '../components/Layout';
 import api, { getCurrentUserId, getCurrentUserRole } from '../services/api';
-import type { Assignment, Submission } from '../types';
+import type { Assignment, Submission, SubmissionEvent, SubmissionPage } from '../types';
 import { 
   Loader2, Calendar, FileText, CheckCircle2, 
   AlertCircle, Sparkles, Send, ArrowLeft 
 } from 'lucide-react';
 
+const PAGE_SIZE = 50;
+
 const AssignmentDetail: React.FC = () => {
   const { assignmentId } = useParams();
   const navigate = useNavigate();
@@ -16,8 +18,15 @@ const AssignmentDetail: React.FC = () => {
 
   const [assignment, setAssignment] = useState<Assignment | null>(null);
   const [submissions, setSubmissions] = useState<Submission[]>([]);
+  // cursor of the next page of the teacher's list; null once the last page is in
+  const [nextCursor, setNextCursor] = useState<number | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [mySubmission, setMySubmission] = useState<Submission | null>(null);
   const [loading, setLoading] = useState(true);
+  // the event handlers below are bound once per assignment and read the current cursor through this
+  const nextCursorRef = useRef<number | null>(null);
+  nextCursorRef.current = nextCursor;
+  const [reloadKey, setReloadKey] = useState(0);
 
   // student answer state
   const [answerContent, setAnswerContent] = useState('');
@@ -26,6 +35,7 @@ const AssignmentDetail: React.FC = () => {
 
   // Teacher grading State
   const [selectedSubmission, setSelectedSubmission] = useState<Submission | null>(null);
+  const [selectedContent, setSelectedContent] = useState<string | null>(null);
   const [gradeInput, setGradeInput] = useState<number>(0);
   const [feedbackInput, setFeedbackInput] = useState('');
 
@@ -39,16 +49,26 @@ const AssignmentDetail: React.FC = () => {
         const assignRes = await api.get<Assignment>(`/assignments/${assignmentId}`);
         setAssignment(assignRes.data);
 
-        // Fetch all submissions for this assignment (teacher sees all, student filters own)
-        // Note: In production, students should not have access to this endpoint; this is for demo purposes only
-        const subRes = await api.get<Submission[]>(`/assignments/${assignmentId}/submissions`);
-        setSubmissions(subRes.data);
+        // Teacher: only the first page of the list; "Load more" fetches the rest on demand
+        if (role === 'TEACHER') {
+          const subRes = await api.get<SubmissionPage>(
+            `/assignments/${assignmentId}/submissions`,
+            { params: { limit: PAGE_SIZE } }
+          );
+          setSubmissions(subRes.data.items);
+          setNextCursor(subRes.data.nextCursor ?? null);
+        }
 
+        // Student: just their own row, never the class list
         if (role === 'STUDENT' && userId) {
-          const mine = subRes.data.find(s => s.student?.id === userId);
+          const mine = await api
+            .get<Submission>(`/assignments/${assignmentId}/students/${userId}/submission`)
+            .then(res => res.data, () => null);
           if (mine) {
             setMySubmission(mine);
-            setAnswerContent(mine.content); // 回填内容
+            // the row only carries a preview; fetch the full body to refill the editor
+            const body = await api.get<string>(`/submissions/${mine.id}/content`, { responseType: 'text' });
+            setAnswerContent(body.data); // 回填内容
           }
         }
       } catch (error) {
@@ -58,10 +78,69 @@ const AssignmentDetail: React.FC = () => {
       }
     };
     fetchData();
-  }, [assignmentId, userId, role]);
+  }, [assignmentId, userId, role, reloadKey]);
+
+  // Live updates instead of polling: grades are patched in place, a submit refetches only that student's row,
+  // and only a bulk grade re-reads the list
+  useEffect(() => {
+    if (!assignmentId) return;
+    const source = new EventSource(`${api.defaults.baseURL}/assignments/${assignmentId}/events`);
+    const reload = () => setReloadKey(k => k + 1);
+    const patchGrade = (e: MessageEvent) => {
+      const event: SubmissionEvent = JSON.parse(e.data);
+      const patch = (s: Submission) =>
+        s.id === event.submissionId ? { ...s, status: event.status, grade: event.grade ?? s.grade } : s;
+      setSubmissions(prev => prev.map(patch));
+      setMySubmission(prev => (prev ? patch(prev) : prev));
+    };
+    const patchSubmitted = async (e: MessageEvent) => {
+      const event: SubmissionEvent = JSON.parse(e.data);
+      if (!event.studentId) return reload();
+      try {
+        const res = await api.get<Submission>(
+          `/assignments/${assignmentId}/students/${event.studentId}/submission`
+        );
+        const row = res.data;
+        // a first submit appends: the list is ordered by id and new rows get the highest one. While later pages
+        // are still unloaded the row belongs to one of them, and "Load more" brings it in its place.
+        setSubmissions(prev =>
+          prev.some(s => s.id === row.id)
+            ? prev.map(s => (s.id === row.id ? row : s))
+            : nextCursorRef.current === null ? [...prev, row] : prev
+        );
+        setMySubmission(prev => (prev && prev.id === row.id ? row : prev));
+      } catch (error) {
+        reload();
+      }
+    };
+    source.addEventListener('GRADED', patchGrade);
+    source.addEventListener('SUBMITTED', patchSubmitted);
+    source.addEventListener('BULK_GRADED', reload);
+    source.addEventListener('CLOSED', reload);
+    return () => source.close();
+  }, [assignmentId]);
 
   // --- Actions ---
 
+  // Teacher: next page of the submission list
+  const loadMore = async () => {
+    if (!assignmentId || nextCursor === null) return;
+    setLoadingMore(true);
+    try {
+      const res = await api.get<SubmissionPage>(
+        `/assignments/${assignmentId}/submissions`,
+        { params: { cursor: nextCursor, limit: PAGE_SIZE } }
+      );
+      // rows appended live may reappear in a later page
+      setSubmissions(prev => [...prev, ...res.data.items.filter(row => !prev.some(s => s.id === row.id))]);
+      setNextCursor(res.data.nextCursor ?? null);
+    } catch (error) {
+      console.error("Failed to load more submissions", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Student: Submit Assignment
   const handleStudentSubmit = async () => {
     if (!assignmentId || !userId) return;
@@ -85,10 +164,17 @@ const AssignmentDetail: React.FC = () => {
   };
 
   // Teacher: Open grading panel for a student's submission
-  const openGradingPanel = (submission: Submission) => {
+  const openGradingPanel = async (submission: Submission) => {
     setSelectedSubmission(submission);
+    setSelectedContent(null);
     setGradeInput(submission.grade || 0);
     setFeedbackInput(submission.feedback || '');
+    try {
+      const body = await api.get<string>(`/submissions/${submission.id}/content`, { responseType: 'text' });
+      setSelectedContent(body.data);
+    } catch (error) {
+      console.error("Failed to load submission content", error);
+    }
   };
 
   // Teacher: AI Auto Grade (Mock)
@@ -178,9 +264,13 @@ const AssignmentDetail: React.FC = () => {
                     <CheckCircle2 className="w-4 h-4" />
                     Graded: {mySubmission.grade}/{assignment.maxScore}
                   </span>
+                ) : mySubmission?.status === 'PENDING' ? (
+                  <span className="bg-red-100 text-red-700 px-3 py-1 rounded-full text-sm font-bold">
+                    Missing
+                  </span>
                 ) : mySubmission ? (
                   <span className="bg-yellow-100 text-yellow-700 px-3 py-1 rounded-full text-sm font-bold">
-                    Submitted
+                    {mySubmission.late ? 'Submitted late' : 'Submitted'}
                   </span>
                 ) : (
                   <span className="bg-slate-100 text-slate-600 px-3 py-1 rounded-full text-sm font-bold">
@@ -252,7 +342,7 @@ const AssignmentDetail: React.FC = () => {
                 <h3 className="font-bold text-gray-800 flex items-center gap-2">
                   Student Submissions
                   <span className="bg-blue-100 text-blue-700 text-xs px-2 py-0.5 rounded-full">
-                    {submissions.length}
+                    {submissions.length}{nextCursor !== null && '+'}
                   </span>
                 </h3>
               </div>
@@ -269,10 +359,17 @@ const AssignmentDetail: React.FC = () => {
                     >
                       <div className="flex justify-between items-start mb-1">
                          <span className="font-medium text-gray-700">{sub.student?.fullName || "Student"}</span>
+                         {sub.late && (
+                           <span className="ml-auto mr-2 text-xs font-bold text-red-600">Late</span>
+                         )}
                          {sub.status === 'GRADED' ? (
                            <span className="text-xs font-bold text-green-600 bg-green-50 px-2 py-0.5 rounded">
                              {sub.grade} / {assignment.maxScore}
                            </span>
+                         ) : sub.status === 'PENDING' ? (
+                           <span className="text-xs font-bold text-red-600 bg-red-50 px-2 py-0.5 rounded">
+                             Missing
+                           </span>
                          ) : (
                            <span className="text-xs font-bold text-yellow-600 bg-yellow-50 px-2 py-0.5 rounded">
                              Needs Grading
@@ -280,11 +377,21 @@ const AssignmentDetail: React.FC = () => {
                          )}
                       </div>
                       <p className="text-xs text-slate-400 truncate">
-                        {sub.content}
+                        {sub.preview}
                       </p>
                     </div>
                   ))
                 )}
+                {nextCursor !== null && (
+                  <button
+                    onClick={loadMore}
+                    disabled={loadingMore}
+                    className="w-full p-3 text-sm font-medium text-blue-600 hover:bg-slate-50 flex justify-center items-center gap-2"
+                  >
+                    {loadingMore && <Loader2 className="w-4 h-4 animate-spin" />}
+                    Load more
+                  </button>
+                )}
               </div>
             </div>
           </div>
@@ -306,7 +413,7 @@ const AssignmentDetail: React.FC = () => {
                <div>
                  <label className="text-sm font-medium text-slate-500">Student Answer</label>
                  <div className="mt-1 p-4 bg-slate-50 rounded-xl text-gray-800 text-sm border border-slate-200 max-h-40 overflow-y-auto">
-                   {selectedSubmission.content}
+                   {selectedContent ?? selectedSubmission.preview}
                  </div>
                </div>
 
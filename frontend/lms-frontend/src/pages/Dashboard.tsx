@@ -1,12 +1,14 @@
 import React, { useEffect, useState } from 'react';
 import api, { getCurrentUserId, getCurrentUserRole } from '../services/api';
-import type { Course } from '../types';
+import type { Course, DashboardAssignment, StudentDashboard } from '../types';
 import Layout from '../components/Layout';
 import CourseCard from '../components/CourseCard';
-import { PlusCircle, Loader2, X } from 'lucide-react'; 
+import { PlusCircle, Loader2, X, Calendar } from 'lucide-react'; 
+import { useNavigate } from 'react-router-dom';
 
 const Dashboard: React.FC = () => {
   const [courses, setCourses] = useState<Course[]>([]);
+  const [upcoming, setUpcoming] = useState<DashboardAssignment[]>([]);
   const [loading, setLoading] = useState(true);
   const [isModalOpen, setIsModalOpen] = useState(false);
   const [isCreating, setIsCreating] = useState(false);
@@ -16,8 +18,12 @@ const Dashboard: React.FC = () => {
     subject: 'Math' 
   });
 
+  const [inviteCode, setInviteCode] = useState('');
+  const [isJoining, setIsJoining] = useState(false);
+
   const userId = getCurrentUserId();
   const role = getCurrentUserRole();
+  const navigate = useNavigate();
 
   useEffect(() => {
     fetchCourses();
@@ -26,8 +32,15 @@ const Dashboard: React.FC = () => {
   const fetchCourses = async () => {
     try {
       if (!userId) return;
-      const response = await api.get(`/courses?userId=${userId}`);
-      setCourses(response.data);
+      if (role === 'STUDENT') {
+        // courses and upcoming work with own submission status in one request
+        const response = await api.get<StudentDashboard>(`/dashboard?userId=${userId}`);
+        setCourses(response.data.courses);
+        setUpcoming(response.data.assignments);
+      } else {
+        const response = await api.get(`/courses?userId=${userId}`);
+        setCourses(response.data);
+      }
     } catch (error) {
       console.error("Failed to fetch courses:", error);
     } finally {
@@ -53,6 +66,25 @@ const Dashboard: React.FC = () => {
     }
   };
 
+  // student: join a course by its invite code
+  const handleJoinCourse = async (e: React.FormEvent) => {
+    e.preventDefault();
+    if (!userId || !inviteCode.trim()) return;
+
+    setIsJoining(true);
+    try {
+      const response = await api.post<Course>(`/courses/join?userId=${userId}`, { inviteCode });
+      if (!courses.some(c => c.id === response.data.id)) {
+        setCourses([...courses, response.data]);
+      }
+      setInviteCode('');
+    } catch (error) {
+      alert("Invalid invite code");
+    } finally {
+      setIsJoining(false);
+    }
+  };
+
   // loading state
   if (loading) {
     return (
@@ -84,6 +116,26 @@ const Dashboard: React.FC = () => {
             Create New Course
           </button>
         )}
+
+        {/* student only */}
+        {role === 'STUDENT' && (
+          <form onSubmit={handleJoinCourse} className="flex items-center gap-2">
+            <input
+              type="text"
+              placeholder="Invite code"
+              className="p-2.5 border border-slate-300 rounded-xl uppercase focus:ring-2 focus:ring-blue-500 focus:border-blue-500 outline-none"
+              value={inviteCode}
+              onChange={e => setInviteCode(e.target.value)}
+            />
+            <button
+              type="submit"
+              disabled={isJoining}
+              className="flex items-center gap-2 bg-blue-600 text-white px-4 py-2.5 rounded-xl font-medium hover:bg-blue-700 transition-colors disabled:opacity-70"
+            >
+              {isJoining ? <Loader2 className="w-4 h-4 animate-spin" /> : 'Join Course'}
+            </button>
+          </form>
+        )}
       </div>
 
       {/* course list */}
@@ -112,6 +164,42 @@ const Dashboard: React.FC = () => {
         </div>
       )}
 
+      {/* student only: upcoming assignments */}
+      {role === 'STUDENT' && upcoming.length > 0 && (
+        <div className="mt-10">
+          <h2 className="text-xl font-bold text-gray-900 mb-4">Upcoming Assignments</h2>
+          <div className="bg-white rounded-2xl border border-slate-200 divide-y divide-slate-100">
+            {upcoming.map(a => (
+              <div
+                key={a.id}
+                onClick={() => navigate(`/assignments/${a.id}`)}
+                className="flex items-center justify-between p-4 hover:bg-slate-50 cursor-pointer"
+              >
+                <div>
+                  <p className="font-medium text-gray-900">{a.title}</p>
+                  <p className="text-sm text-slate-500">{a.courseTitle}</p>
+                </div>
+                <div className="flex items-center gap-4 text-sm">
+                  {a.dueDate && (
+                    <span className="flex items-center gap-1 text-slate-500">
+                      <Calendar className="w-4 h-4" />
+                      {new Date(a.dueDate).toLocaleDateString()}
+                    </span>
+                  )}
+                  <span className={`px-2.5 py-1 rounded-full font-medium ${
+                    a.status === 'GRADED' ? 'bg-green-50 text-green-700'
+                      : a.status === 'SUBMITTED' ? 'bg-blue-50 text-blue-700'
+                      : 'bg-amber-50 text-amber-700'
+                  }`}>
+                    {a.status === 'GRADED' ? `${a.grade}/${a.maxScore ?? 100}` : a.status}
+                  </span>
+                </div>
+              </div>
+            ))}
+          </div>
+        </div>
+      )}
+
       {/* Create Course Modal */}
       {isModalOpen && (
         <div className="fixed inset-0 z-50 flex items-center justify-center p-4 bg-black/50 backdrop-blur-sm animate-in fade-in">
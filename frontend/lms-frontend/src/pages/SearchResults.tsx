@@ -0,0 +1,100 @@
+import React, { useEffect, useState } from 'react';
+import { useNavigate, useSearchParams } from 'react-router-dom';
+import Layout from '../components/Layout';
+import api, { getCurrentUserId } from '../services/api';
+import type { SearchHit, SearchResults } from '../types';
+import { Loader2, BookOpen, FileText, Send } from 'lucide-react';
+
+// snippets come back as text with <mark> around matches; render them without injecting HTML
+const Snippet: React.FC<{ text: string }> = ({ text }) => (
+  <>
+    {text.split(/(<mark>.*?<\/mark>)/g).map((part, i) =>
+      part.startsWith('<mark>')
+        ? <mark key={i} className="bg-yellow-100 rounded px-0.5">{part.slice(6, -7)}</mark>
+        : <React.Fragment key={i}>{part}</React.Fragment>
+    )}
+  </>
+);
+
+const icons = { COURSE: BookOpen, ASSIGNMENT: FileText, SUBMISSION: Send };
+
+const SearchResultsPage: React.FC = () => {
+  const [params] = useSearchParams();
+  const navigate = useNavigate();
+  const userId = getCurrentUserId();
+  const q = params.get('q') ?? '';
+
+  const [hits, setHits] = useState<SearchHit[]>([]);
+  const [nextOffset, setNextOffset] = useState<number | null>(null);
+  const [loading, setLoading] = useState(true);
+
+  const load = async (offset: number) => {
+    if (!userId || !q) return;
+    setLoading(true);
+    try {
+      const res = await api.get<SearchResults>('/search', { params: { userId, q, offset, limit: 20 } });
+      setHits(prev => (offset === 0 ? res.data.items : [...prev, ...res.data.items]));
+      setNextOffset(res.data.nextOffset ?? null);
+    } catch (error) {
+      console.error('Search failed', error);
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  useEffect(() => {
+    load(0);
+  }, [q, userId]);
+
+  const open = (hit: SearchHit) =>
+    navigate(hit.type === 'COURSE' ? `/courses/${hit.courseId}` : `/assignments/${hit.assignmentId}`);
+
+  return (
+    <Layout>
+      <h1 className="text-2xl font-bold text-gray-900 mb-6">Results for “{q}”</h1>
+
+      {!loading && hits.length === 0 && (
+        <p className="text-slate-400">Nothing matched your search.</p>
+      )}
+
+      <div className="space-y-3">
+        {hits.map(hit => {
+          const Icon = icons[hit.type];
+          return (
+            <div
+              key={`${hit.type}-${hit.id}`}
+              onClick={() => open(hit)}
+              className="bg-white border border-slate-200 rounded-xl p-4 hover:shadow-md hover:border-blue-300 transition-all cursor-pointer flex gap-4"
+            >
+              <Icon className="w-5 h-5 text-blue-600 mt-0.5 shrink-0" />
+              <div>
+                <p className="font-medium text-gray-900">
+                  {hit.title}
+                  <span className="ml-2 text-xs font-normal text-slate-400">{hit.type.toLowerCase()}</span>
+                </p>
+                <p className="text-sm text-slate-600 mt-1"><Snippet text={hit.snippet} /></p>
+              </div>
+            </div>
+          );
+        })}
+      </div>
+
+      {loading && (
+        <div className="flex justify-center py-8">
+          <Loader2 className="w-6 h-6 text-blue-500 animate-spin" />
+        </div>
+      )}
+
+      {!loading && nextOffset !== null && (
+        <button
+          onClick={() => load(nextOffset)}
+          className="mt-6 px-4 py-2 border border-slate-300 rounded-xl text-slate-700 hover:bg-slate-50"
+        >
+          Load more
+        </button>
+      )}
+    </Layout>
+  );
+};
+
+export default SearchResultsPage;
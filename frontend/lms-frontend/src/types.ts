@@ -30,10 +30,64 @@ export interface Assignment {
 
 export interface Submission {
   id: number;
-  content: string;
+  preview: string; // start of the body; the full text is at /submissions/{id}/content
+  contentSize?: number;
   grade?: number;
   feedback?: string;
-  status: SubmissionStatus;
+  status: SubmissionStatus; // PENDING = missing work recorded after the due date
+  late?: boolean;
   submittedAt?: string;
   student?: User;
-}
\ No newline at end of file
+}
+
+export interface SubmissionPage {
+  items: Submission[];
+  nextCursor?: number | null;
+}
+
+// pushed over /api/assignments/{id}/events and /api/courses/{id}/events
+export interface SubmissionEvent {
+  type: 'SUBMITTED' | 'GRADED' | 'BULK_GRADED' | 'CLOSED';
+  submissionId?: number | null;
+  assignmentId: number;
+  courseId: number;
+  studentId?: number | null;
+  status: SubmissionStatus;
+  grade?: number | null;
+  occurredAt: string;
+}
+
+// GET /api/dashboard?userId=
+export interface DashboardAssignment {
+  id: number;
+  title: string;
+  dueDate?: string | null;
+  maxScore?: number | null;
+  courseId: number;
+  courseTitle: string;
+  submissionId?: number | null;
+  status: SubmissionStatus;
+  grade?: number | null;
+  submittedAt?: string | null;
+}
+
+export interface StudentDashboard {
+  courses: Course[];
+  assignments: DashboardAssignment[];
+}
+
+// GET /api/search?userId=&q=
+export interface SearchHit {
+  type: 'COURSE' | 'ASSIGNMENT' | 'SUBMISSION';
+  id: number;
+  courseId: number;
+  assignmentId?: number | null;
+  title: string;
+  snippet: string; // matches wrapped in <mark>...</mark>
+  rank: number;
+}
+
+export interface SearchResults {
+  items: SearchHit[];
+  nextOffset?: number | null;
+}